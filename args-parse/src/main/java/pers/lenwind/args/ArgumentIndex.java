@@ -0,0 +1,76 @@
+package pers.lenwind.args;
+
+import pers.lenwind.args.exception.ParseException;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+final class ArgumentIndex {
+    private static final int ABSENT = FlagTable.ABSENT;
+
+    private final Tokens tokens;
+    private final FlagTable flags;
+    private final int[] starts;
+    private final int[] ends;
+
+    private ArgumentIndex(Tokens tokens, FlagTable flags, int[] starts, int[] ends) {
+        this.tokens = tokens;
+        this.flags = flags;
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    static ArgumentIndex of(Collection<String> flags, String... args) {
+        return of(FlagTable.of(flags), args);
+    }
+
+    static ArgumentIndex of(FlagTable flags, String... args) {
+        Tokens tokens = Tokens.of(args);
+        int[] starts = new int[flags.size()];
+        int[] ends = new int[flags.size()];
+        Arrays.fill(starts, ABSENT);
+        int open = ABSENT;
+        for (int i = 0; i < tokens.size(); i++) {
+            int id = flags.id(tokens, i);
+            if (id == ABSENT) {
+                continue;
+            }
+            if (open != ABSENT) {
+                ends[open] = i;
+                open = ABSENT;
+            }
+            if (starts[id] == ABSENT) {
+                starts[id] = i;
+                open = id;
+            }
+        }
+        if (open != ABSENT) {
+            ends[open] = tokens.size();
+        }
+        return new ArgumentIndex(tokens, flags, starts, ends);
+    }
+
+    boolean contains(String flag) {
+        int id = flags.id(flag);
+        return id != ABSENT && starts[id] != ABSENT;
+    }
+
+    List<String> values(String flag) {
+        int id = locate(flag);
+        return tokens.slice(starts[id] + 1, ends[id]);
+    }
+
+    int[] ints(String flag) {
+        int id = locate(flag);
+        return tokens.ints(starts[id] + 1, ends[id]);
+    }
+
+    private int locate(String flag) {
+        int id = flags.id(flag);
+        if (id == ABSENT || starts[id] == ABSENT) {
+            throw new ParseException(flag);
+        }
+        return id;
+    }
+}
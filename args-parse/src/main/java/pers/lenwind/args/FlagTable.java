@@ -0,0 +1,65 @@
+package pers.lenwind.args;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Declared flags keyed both by string, for command-line arguments, and by their UTF-8 bytes, so tokens read
+ * from an argument file are identified without materializing a {@code String} for each of them.
+ */
+final class FlagTable {
+    static final int ABSENT = -1;
+
+    private final Map<String, Integer> ids;
+    private final byte[][][] flags = new byte[256][][];
+    private final int[][] flagIds = new int[256][];
+
+    private FlagTable(Map<String, Integer> ids) {
+        this.ids = ids;
+        ids.forEach((flag, id) -> {
+            if (flag.isEmpty()) {
+                return;
+            }
+            byte[] bytes = flag.getBytes(StandardCharsets.UTF_8);
+            int initial = bytes[0] & 0xFF;
+            int count = flags[initial] == null ? 0 : flags[initial].length;
+            flags[initial] = count == 0 ? new byte[1][] : Arrays.copyOf(flags[initial], count + 1);
+            flagIds[initial] = count == 0 ? new int[1] : Arrays.copyOf(flagIds[initial], count + 1);
+            flags[initial][count] = bytes;
+            flagIds[initial][count] = id;
+        });
+    }
+
+    static FlagTable of(Collection<String> flags) {
+        Map<String, Integer> ids = new HashMap<>(flags.size() * 4 / 3 + 1);
+        for (String flag : flags) {
+            ids.putIfAbsent(flag, ids.size());
+        }
+        return new FlagTable(Collections.unmodifiableMap(ids));
+    }
+
+    int size() {
+        return ids.size();
+    }
+
+    int id(String flag) {
+        return ids.getOrDefault(flag, ABSENT);
+    }
+
+    int id(Tokens tokens, int index) {
+        if (!tokens.fromFile(index)) {
+            return id(tokens.get(index));
+        }
+        int initial = tokens.first(index) & 0xFF;
+        byte[][] candidates = flags[initial];
+        if (candidates == null) {
+            return ABSENT;
+        }
+        for (int i = 0; i < candidates.length; i++) {
+            if (tokens.matches(index, candidates[i])) {
+                return flagIds[initial][i];
+            }
+        }
+        return ABSENT;
+    }
+}
@@ -0,0 +1,12 @@
+package pers.lenwind.args;
+
+import java.util.List;
+
+interface IndexedParseOption<T> extends ParseOption<T> {
+    T parse(ArgumentIndex args, Option option);
+
+    @Override
+    default T parse(List<String> args, Option option) {
+        return parse(ArgumentIndex.of(List.of(option.value()), args.toArray(String[]::new)), option);
+    }
+}
@@ -0,0 +1,57 @@
+package pers.lenwind.args;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+
+final class OptionsSchema {
+    private static final ClassValue<OptionsSchema> SCHEMAS = new ClassValue<>() {
+        @Override
+        protected OptionsSchema computeValue(Class<?> optionsClass) {
+            return new OptionsSchema(optionsClass);
+        }
+    };
+
+    private final MethodHandle constructor;
+    private final Option[] options;
+    private final IndexedParseOption<?>[] parsers;
+    private final FlagTable flags;
+
+    private OptionsSchema(Class<?> optionsClass) {
+        Constructor<?> constructor = optionsClass.getDeclaredConstructors()[0];
+        Parameter[] parameters = constructor.getParameters();
+        options = Arrays.stream(parameters).map(parameter -> parameter.getAnnotation(Option.class)).toArray(Option[]::new);
+        parsers = Arrays.stream(parameters).map(parameter -> ParseOptionFactory.createOption(parameter.getType())).toArray(IndexedParseOption<?>[]::new);
+        flags = FlagTable.of(Arrays.stream(options).map(Option::value).toList());
+        try {
+            constructor.trySetAccessible();
+            this.constructor = MethodHandles.lookup().unreflectConstructor(constructor)
+                .asSpreader(Object[].class, parameters.length)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static OptionsSchema of(Class<?> optionsClass) {
+        return SCHEMAS.get(optionsClass);
+    }
+
+    Object parse(String... args) {
+        ArgumentIndex index = ArgumentIndex.of(flags, args);
+        Object[] values = new Object[parsers.length];
+        for (int i = 0; i < parsers.length; i++) {
+            values[i] = parsers[i].parse(index, options[i]);
+        }
+        try {
+            return constructor.invokeExact(values);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -5,21 +5,20 @@ import pers.lenwind.args.exception.ParseException;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.IntStream;
 
 class ParseOptionFactory {
-    private static final Map<Class<?>, ParseOption<?>> PARSE_OPTIONS = Map.of(
+    private static final Map<Class<?>, IndexedParseOption<?>> PARSE_OPTIONS = Map.of(
         boolean.class, bool(),
         int.class, integer(),
         String.class, string(),
         String[].class, group(),
         int[].class, decimals());
 
-    public static ParseOption<?> createOption(Class<?> type) {
+    public static IndexedParseOption<?> createOption(Class<?> type) {
         return PARSE_OPTIONS.get(type);
     }
 
-    private static ParseOption<String> string() {
+    private static IndexedParseOption<String> string() {
         return (args, option) -> {
             List<String> values = values(args, option);
             if (values.size() > 1) {
@@ -29,7 +28,7 @@ class ParseOptionFactory {
         };
     }
 
-    private static ParseOption<Boolean> bool() {
+    private static IndexedParseOption<Boolean> bool() {
         return (args, option) -> {
             try {
                 if (values(args, option).size() > 0) {
@@ -42,7 +41,7 @@ class ParseOptionFactory {
         };
     }
 
-    private static ParseOption<Integer> integer() {
+    private static IndexedParseOption<Integer> integer() {
         return (args, option) -> {
             List<String> values = values(args, option);
             if (values.size() > 1) {
@@ -58,25 +57,15 @@ class ParseOptionFactory {
         };
     }
 
-    private static ParseOption<String[]> group() {
+    private static IndexedParseOption<String[]> group() {
         return (args, option) -> values(args, option).toArray(String[]::new);
     }
 
-    private static ParseOption<int[]> decimals() {
-        return (args, option) -> values(args, option).stream().mapToInt(Integer::parseInt).toArray();
+    private static IndexedParseOption<int[]> decimals() {
+        return (args, option) -> args.ints(option.value());
     }
 
-    protected static List<String> values(List<String> args, Option option) {
-        int index = args.indexOf(option.value());
-        if (index == -1) {
-            throw new ParseException(option.value());
-        }
-        return args.subList(index + 1, getFlowingFlagIndex(index, args));
-    }
-
-    private static int getFlowingFlagIndex(int index, List<String> args) {
-        return IntStream.range(index + 1, args.size())
-            .filter(i -> args.get(i).matches("-[dglp]"))
-            .findFirst().orElse(args.size());
+    protected static List<String> values(ArgumentIndex args, Option option) {
+        return args.values(option.value());
     }
 }
@@ -0,0 +1,196 @@
+package pers.lenwind.args;
+
+import pers.lenwind.args.exception.ArgumentFileException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+final class Tokens {
+    private static final char ARGUMENT_FILE = '@';
+    private static final int MAPPING_THRESHOLD = 1 << 16;
+    private static final int COMMAND_LINE = -1;
+
+    private final String[] strings;
+    private final List<ByteBuffer> files = new ArrayList<>();
+    private int size;
+    private int[] sources;
+    private int[] offsets;
+    private int[] lengths;
+
+    private Tokens(String[] strings) {
+        this.strings = strings;
+    }
+
+    static Tokens of(String... args) {
+        Tokens tokens = new Tokens(args);
+        if (Arrays.stream(args).noneMatch(Tokens::isArgumentFile)) {
+            tokens.size = args.length;
+            return tokens;
+        }
+        tokens.sources = new int[args.length * 2];
+        tokens.offsets = new int[args.length * 2];
+        tokens.lengths = new int[args.length * 2];
+        for (int i = 0; i < args.length; i++) {
+            if (isArgumentFile(args[i])) {
+                tokens.split(args[i].substring(1));
+            } else {
+                tokens.add(COMMAND_LINE, i, 0);
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isArgumentFile(String arg) {
+        return arg.length() > 1 && arg.charAt(0) == ARGUMENT_FILE;
+    }
+
+    private void split(String path) {
+        ByteBuffer buffer = read(path);
+        int source = files.size();
+        files.add(buffer);
+        int limit = buffer.limit();
+        int position = 0;
+        while (position < limit) {
+            while (position < limit && isWhitespace(buffer.get(position))) {
+                position++;
+            }
+            int start = position;
+            while (position < limit && !isWhitespace(buffer.get(position))) {
+                position++;
+            }
+            if (position > start) {
+                add(source, start, position - start);
+            }
+        }
+    }
+
+    private static ByteBuffer read(String path) {
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > MAPPING_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            }
+            return ByteBuffer.wrap(Files.readAllBytes(Path.of(path)));
+        } catch (IOException e) {
+            throw new ArgumentFileException(path, e);
+        }
+    }
+
+    private static boolean isWhitespace(byte value) {
+        return value == ' ' || value == '\n' || value == '\r' || value == '\t' || value == '\f';
+    }
+
+    private void add(int source, int offset, int length) {
+        if (size == sources.length) {
+            int capacity = size * 2 + 16;
+            sources = Arrays.copyOf(sources, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        sources[size] = source;
+        offsets[size] = offset;
+        lengths[size++] = length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean fromFile(int index) {
+        return sources != null && sources[index] != COMMAND_LINE;
+    }
+
+    byte first(int index) {
+        return files.get(sources[index]).get(offsets[index]);
+    }
+
+    boolean matches(int index, byte[] bytes) {
+        if (lengths[index] != bytes.length) {
+            return false;
+        }
+        ByteBuffer buffer = files.get(sources[index]);
+        int offset = offsets[index];
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String get(int index) {
+        if (sources == null) {
+            return strings[index];
+        }
+        if (sources[index] == COMMAND_LINE) {
+            return strings[offsets[index]];
+        }
+        byte[] bytes = new byte[lengths[index]];
+        files.get(sources[index]).get(offsets[index], bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    List<String> slice(int from, int to) {
+        if (sources == null) {
+            return Arrays.asList(strings).subList(from, to);
+        }
+        return new Slice(from, to);
+    }
+
+    int[] ints(int from, int to) {
+        int[] values = new int[to - from];
+        for (int i = from; i < to; i++) {
+            values[i - from] = sources == null || sources[i] == COMMAND_LINE
+                ? Integer.parseInt(get(i))
+                : parseInt(files.get(sources[i]), offsets[i], lengths[i], i);
+        }
+        return values;
+    }
+
+    private int parseInt(ByteBuffer buffer, int offset, int length, int index) {
+        byte first = buffer.get(offset);
+        boolean negative = first == '-';
+        int cursor = negative || first == '+' ? 1 : 0;
+        if (cursor == length) {
+            throw new NumberFormatException("For input string: \"" + get(index) + "\"");
+        }
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int bound = limit / 10;
+        int result = 0;
+        for (; cursor < length; cursor++) {
+            int digit = buffer.get(offset + cursor) - '0';
+            if (digit < 0 || digit > 9 || result < bound || result * 10 < limit + digit) {
+                throw new NumberFormatException("For input string: \"" + get(index) + "\"");
+            }
+            result = result * 10 - digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private final class Slice extends AbstractList<String> implements RandomAccess {
+        private final int from;
+        private final int to;
+
+        private Slice(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public String get(int index) {
+            Objects.checkIndex(index, to - from);
+            return Tokens.this.get(from + index);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package pers.lenwind.args.exception;
+
+import java.io.IOException;
+
+public class ArgumentFileException extends RuntimeException {
+    private final String path;
+
+    public ArgumentFileException(String path, IOException cause) {
+        super(path, cause);
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+}
@@ -2,9 +2,20 @@ package pers.lenwind.args;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pers.lenwind.args.exception.ArgumentFileException;
 import pers.lenwind.args.exception.MultiArgsException;
 import pers.lenwind.args.exception.ParseException;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ArgsTest {
@@ -123,5 +134,136 @@ public class ArgsTest {
 
     static record ListOptions(@Option("-g") String[] group, @Option("-d") int[] decimals) {
     }
-}
 
+    @Nested
+    class Tokenizing {
+        @Test
+        void should_only_split_values_on_declared_flags() {
+            GroupOption groupOption = Args.parse(GroupOption.class, "-g -l a -p b".split(" "));
+            assertArrayEquals(new String[]{"-l", "a", "-p", "b"}, groupOption.group());
+        }
+
+        @Test
+        void should_read_values_after_first_occurrence_of_flag() {
+            ListOptions listOptions = Args.parse(ListOptions.class, "-g a -d 1 -g b".split(" "));
+            assertArrayEquals(new String[]{"a"}, listOptions.group());
+            assertArrayEquals(new int[]{1}, listOptions.decimals());
+        }
+
+        @Test
+        void should_index_every_declared_flag_in_one_pass() {
+            ArgumentIndex index = ArgumentIndex.of(List.of("-l", "-p", "-d"), "-d", "/usr/logs", "-l", "-x");
+
+            assertTrue(index.contains("-l"));
+            assertFalse(index.contains("-p"));
+            assertEquals(List.of("/usr/logs"), index.values("-d"));
+            assertEquals(List.of("-x"), index.values("-l"));
+            assertThrows(ParseException.class, () -> index.values("-p"));
+        }
+
+        @Test
+        void should_parse_option_from_argument_list() {
+            Option option = GroupOption.class.getDeclaredConstructors()[0].getParameters()[0].getAnnotation(Option.class);
+            ParseOption<?> parser = ParseOptionFactory.createOption(String[].class);
+
+            assertArrayEquals(new String[]{"a", "b"}, (String[]) parser.parse(List.of("-g", "a", "b"), option));
+        }
+    }
+
+    @Nested
+    class Schema {
+        @Test
+        void should_compile_options_class_once() {
+            assertSame(OptionsSchema.of(Options.class), OptionsSchema.of(Options.class));
+        }
+
+        @Test
+        void should_parse_concurrently_with_shared_schema() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<Options>> results = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    String port = String.valueOf(8000 + i);
+                    results.add(executor.submit(() -> Args.parse(Options.class, "-l", "-p", port, "-d", "/usr/logs")));
+                }
+                for (int i = 0; i < results.size(); i++) {
+                    assertEquals(new Options(true, 8000 + i, "/usr/logs"), results.get(i).get());
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    class ArgumentFiles {
+        @TempDir
+        Path directory;
+
+        @Test
+        void should_expand_argument_file_in_place() throws IOException {
+            Path file = Files.writeString(directory.resolve("args"), "-p 8080\n\t-d /usr/logs\n");
+
+            Options options = Args.parse(Options.class, "-l", "@" + file);
+            assertTrue(options.logging());
+            assertEquals(8080, options.port());
+            assertEquals("/usr/logs", options.directory());
+        }
+
+        @Test
+        void should_read_list_values_from_argument_file() throws IOException {
+            Path file = Files.writeString(directory.resolve("group"), "this is\na list");
+
+            ListOptions options = Args.parse(ListOptions.class, "-g", "@" + file, "-d", "1");
+            assertArrayEquals(new String[]{"this", "is", "a", "list"}, options.group());
+            assertArrayEquals(new int[]{1}, options.decimals());
+        }
+
+        @Test
+        void should_parse_large_int_list_from_mapped_argument_file() throws IOException {
+            int size = 200_000;
+            StringBuilder content = new StringBuilder("-d");
+            for (int i = 0; i < size; i++) {
+                content.append(' ').append(i % 2 == 0 ? i : -i);
+            }
+            Path file = Files.writeString(directory.resolve("ids"), content);
+
+            int[] decimals = Args.parse(DecimalsOptions.class, "@" + file).decimals();
+            assertEquals(size, decimals.length);
+            assertEquals(-199_999, decimals[size - 1]);
+            assertEquals(198_000, decimals[198_000]);
+        }
+
+        @Test
+        void should_match_flags_in_argument_file_by_whole_token() throws IOException {
+            Path file = Files.writeString(directory.resolve("flags"), "-g -gg - -d -1 -2");
+
+            ListOptions options = Args.parse(ListOptions.class, "@" + file);
+            assertArrayEquals(new String[]{"-gg", "-"}, options.group());
+            assertArrayEquals(new int[]{-1, -2}, options.decimals());
+        }
+
+        @Test
+        void should_parse_int_bounds_from_argument_file() throws IOException {
+            Path file = Files.writeString(directory.resolve("bounds"), "2147483647 -2147483648 +7");
+
+            assertArrayEquals(new int[]{Integer.MAX_VALUE, Integer.MIN_VALUE, 7},
+                Args.parse(DecimalsOptions.class, "-d", "@" + file).decimals());
+        }
+
+        @Test
+        void should_throw_exception_if_int_in_argument_file_invalid() throws IOException {
+            Path file = Files.writeString(directory.resolve("invalid"), "1 2147483648");
+
+            assertThrows(NumberFormatException.class, () -> Args.parse(DecimalsOptions.class, "-d", "@" + file));
+        }
+
+        @Test
+        void should_throw_exception_if_argument_file_not_found() {
+            String path = directory.resolve("missing").toString();
+
+            ArgumentFileException exception = assertThrows(ArgumentFileException.class, () -> Args.parse(GroupOption.class, "-g", "@" + path));
+            assertEquals(path, exception.getPath());
+        }
+    }
+}
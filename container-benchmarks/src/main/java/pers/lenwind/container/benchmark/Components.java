@@ -0,0 +1,101 @@
+package pers.lenwind.container.benchmark;
+
+import jakarta.inject.Inject;
+import pers.lenwind.container.Provider;
+
+public class Components {
+    public static class Shallow {
+    }
+
+    public static class Level1 {
+        @Inject
+        public Level1(Shallow shallow) {
+        }
+    }
+
+    public static class Level2 {
+        @Inject
+        public Level2(Level1 level1, Shallow shallow) {
+        }
+    }
+
+    public static class Level3 {
+        @Inject
+        public Level3(Level2 level2, Shallow shallow) {
+        }
+    }
+
+    public static class Level4 {
+        @Inject
+        public Level4(Level3 level3, Shallow shallow) {
+        }
+    }
+
+    public static class Deep {
+        @Inject
+        public Deep(Level4 level4, Shallow shallow) {
+        }
+    }
+
+    public static class ProviderInjected {
+        final Provider<Deep> deep;
+
+        @Inject
+        public ProviderInjected(Provider<Deep> deep) {
+            this.deep = deep;
+        }
+    }
+
+    public static class FieldInjected {
+        @Inject
+        Shallow first;
+        @Inject
+        Shallow second;
+        @Inject
+        Shallow third;
+        @Inject
+        Shallow fourth;
+        @Inject
+        Level1 fifth;
+        @Inject
+        Level1 sixth;
+        @Inject
+        Level1 seventh;
+        @Inject
+        Level1 eighth;
+    }
+
+    public static class MethodInjected {
+        @Inject
+        void first(Shallow shallow) {
+        }
+
+        @Inject
+        void second(Shallow shallow) {
+        }
+
+        @Inject
+        void third(Shallow shallow) {
+        }
+
+        @Inject
+        void fourth(Shallow shallow) {
+        }
+
+        @Inject
+        void fifth(Level1 level1) {
+        }
+
+        @Inject
+        void sixth(Level1 level1) {
+        }
+
+        @Inject
+        void seventh(Level1 level1) {
+        }
+
+        @Inject
+        void eighth(Level1 level1) {
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package pers.lenwind.container.benchmark;
+
+import jakarta.inject.Singleton;
+import org.openjdk.jmh.annotations.*;
+import pers.lenwind.container.Context;
+import pers.lenwind.container.ContextConfiguration;
+import pers.lenwind.container.benchmark.Components.*;
+
+import java.lang.annotation.Annotation;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConcurrentResolutionBenchmark {
+    private final Annotation qualifier = new NamedLiteral("qualified");
+
+    private Context context;
+
+    @Setup
+    public void setUp() {
+        ContextConfiguration configuration = new ContextConfiguration();
+        configuration.bind(Shallow.class, Shallow.class);
+        configuration.bind(Shallow.class, Shallow.class, qualifier);
+        configuration.bind(Level1.class, Level1.class);
+        configuration.bind(Deep.class, Deep.class, SingletonDeep.class.getAnnotation(Singleton.class));
+        configuration.bind(Level2.class, Level2.class);
+        configuration.bind(Level3.class, Level3.class);
+        configuration.bind(Level4.class, Level4.class);
+        context = configuration.toContext();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<Level1> prototypeSingleThread() {
+        return context.getInstance(Level1.class);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Optional<Level1> prototypeAllThreads() {
+        return context.getInstance(Level1.class);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<Deep> singletonSingleThread() {
+        return context.getInstance(Deep.class);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Optional<Deep> singletonAllThreads() {
+        return context.getInstance(Deep.class);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<Shallow> qualifiedSingleThread() {
+        return context.getInstance(Shallow.class, qualifier);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Optional<Shallow> qualifiedAllThreads() {
+        return context.getInstance(Shallow.class, qualifier);
+    }
+
+    @Singleton
+    private static class SingletonDeep {
+    }
+}
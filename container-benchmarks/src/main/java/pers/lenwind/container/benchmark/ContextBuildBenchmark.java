@@ -0,0 +1,62 @@
+package pers.lenwind.container.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pers.lenwind.container.Context;
+import pers.lenwind.container.Descriptor;
+import pers.lenwind.container.Provider;
+import pers.lenwind.container.Ref;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ContextBuildBenchmark {
+    private static final int MAX_DEPENDENCIES = 3;
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int bindings;
+
+    private Map<Ref, Provider<?>> initialCache;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(bindings);
+        Annotation[] qualifiers = new Annotation[bindings];
+        initialCache = new HashMap<>(bindings * 4 / 3 + 1);
+        for (int i = 0; i < bindings; i++) {
+            qualifiers[i] = new NamedLiteral(String.valueOf(i));
+            List<Descriptor> dependencies = new ArrayList<>(MAX_DEPENDENCIES);
+            for (int j = 0; j < MAX_DEPENDENCIES && i > 0; j++) {
+                dependencies.add(new Descriptor(Object.class, Descriptor.Kind.INSTANCE, qualifiers[random.nextInt(i)]));
+            }
+            initialCache.put(Ref.of(Object.class, qualifiers[i]), new NodeProvider(List.copyOf(dependencies)));
+        }
+    }
+
+    @Benchmark
+    public Context build() {
+        return new Context(initialCache);
+    }
+
+    record NodeProvider(List<Descriptor> dependencies) implements Provider<Object> {
+        @Override
+        public Object get(Context context) {
+            return new Object();
+        }
+
+        @Override
+        public List<Descriptor> getDependencies() {
+            return dependencies;
+        }
+    }
+}
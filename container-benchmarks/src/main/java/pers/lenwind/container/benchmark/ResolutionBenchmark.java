@@ -0,0 +1,84 @@
+package pers.lenwind.container.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pers.lenwind.container.Context;
+import pers.lenwind.container.ContextConfiguration;
+import pers.lenwind.container.Provider;
+import pers.lenwind.container.benchmark.Components.*;
+
+import java.lang.annotation.Annotation;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ResolutionBenchmark {
+    private final Annotation qualifier = new NamedLiteral("qualified");
+
+    private Context context;
+
+    @Setup
+    public void setUp() {
+        ContextConfiguration configuration = new ContextConfiguration();
+        configuration.bind(Shallow.class, Shallow.class);
+        configuration.bind(Shallow.class, Shallow.class, qualifier);
+        configuration.bind(Level1.class, Level1.class);
+        configuration.bind(Level2.class, Level2.class);
+        configuration.bind(Level3.class, Level3.class);
+        configuration.bind(Level4.class, Level4.class);
+        configuration.bind(Deep.class, Deep.class);
+        configuration.bind(ProviderInjected.class, ProviderInjected.class);
+        configuration.bind(FieldInjected.class, FieldInjected.class);
+        configuration.bind(MethodInjected.class, MethodInjected.class);
+        context = configuration.toContext();
+    }
+
+    @Benchmark
+    public Optional<Shallow> shallow() {
+        return context.getInstance(Shallow.class);
+    }
+
+    @Benchmark
+    public Optional<Deep> deep() {
+        return context.getInstance(Deep.class);
+    }
+
+    @Benchmark
+    public Optional<Provider<Shallow>> unqualifiedLookup() {
+        return context.getProvider(Shallow.class);
+    }
+
+    @Benchmark
+    public Optional<Provider<Shallow>> qualifiedLookup() {
+        return context.getProvider(Shallow.class, qualifier);
+    }
+
+    @Benchmark
+    public Optional<Shallow> qualified() {
+        return context.getInstance(Shallow.class, qualifier);
+    }
+
+    @Benchmark
+    public Optional<ProviderInjected> providerInjection() {
+        return context.getInstance(ProviderInjected.class);
+    }
+
+    @Benchmark
+    public Deep providerGet() {
+        return context.getInstance(ProviderInjected.class).get().deep.get(context);
+    }
+
+    @Benchmark
+    public Optional<FieldInjected> fieldInjection() {
+        return context.getInstance(FieldInjected.class);
+    }
+
+    @Benchmark
+    public Optional<MethodInjected> methodInjection() {
+        return context.getInstance(MethodInjected.class);
+    }
+}
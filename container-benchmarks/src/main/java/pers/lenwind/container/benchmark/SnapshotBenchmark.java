@@ -0,0 +1,114 @@
+package pers.lenwind.container.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pers.lenwind.container.Context;
+import pers.lenwind.container.ContextConfiguration;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold context builds: every invocation loads the generated components through a fresh class loader, so no
+ * injection plan is cached yet and the snapshot has to pay for itself against the full graph analysis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SnapshotBenchmark {
+    private static final int MAX_DEPENDENCIES = 3;
+
+    @Param({"500"})
+    public int components;
+
+    private Path classes;
+    private Path snapshot;
+    private List<Class<?>> types;
+
+    @Setup(Level.Trial)
+    public void compile() throws IOException {
+        Path directory = Files.createTempDirectory("snapshot-benchmark");
+        Path sources = Files.createDirectories(directory.resolve("sources").resolve("generated"));
+        classes = Files.createDirectories(directory.resolve("classes"));
+        snapshot = directory.resolve("context.snapshot");
+        SplittableRandom random = new SplittableRandom(components);
+        List<Path> files = new ArrayList<>(components);
+        for (int i = 0; i < components; i++) {
+            StringBuilder parameters = new StringBuilder();
+            for (int j = 0; j < MAX_DEPENDENCIES && i > 0; j++) {
+                parameters.append(j == 0 ? "" : ", ").append("C").append(random.nextInt(i)).append(" d").append(j);
+            }
+            files.add(Files.writeString(sources.resolve("C" + i + ".java"), """
+                package generated;
+
+                public class C%d {
+                    @jakarta.inject.Inject
+                    public C%d(%s) {
+                    }
+                }
+                """.formatted(i, i, parameters)));
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            boolean compiled = compiler.getTask(null, fileManager, null,
+                List.of("-d", classes.toString(), "-cp", System.getProperty("java.class.path"), "-proc:none"),
+                null, fileManager.getJavaFileObjectsFromPaths(files)).call();
+            if (!compiled) {
+                throw new IllegalStateException("failed to compile generated components");
+            }
+        }
+        configure(load()).toContext(snapshot);
+    }
+
+    @Setup(Level.Invocation)
+    public void reload() {
+        types = load();
+    }
+
+    @Benchmark
+    public Context build() {
+        return configure(types).toContext();
+    }
+
+    @Benchmark
+    public Context buildFromSnapshot() {
+        return configure(types).toContext(snapshot);
+    }
+
+    private List<Class<?>> load() {
+        try {
+            URLClassLoader loader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader());
+            List<Class<?>> loaded = new ArrayList<>(components);
+            for (int i = 0; i < components; i++) {
+                loaded.add(Class.forName("generated.C" + i, false, loader));
+            }
+            return loaded;
+        } catch (MalformedURLException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ContextConfiguration configure(List<Class<?>> types) {
+        ContextConfiguration configuration = new ContextConfiguration();
+        for (Class<?> type : types) {
+            configuration.bind((Class<Object>) type, type);
+        }
+        return configuration;
+    }
+}
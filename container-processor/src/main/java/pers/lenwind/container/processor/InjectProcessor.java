@@ -0,0 +1,296 @@
+package pers.lenwind.container.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+@SupportedAnnotationTypes(InjectProcessor.INJECT)
+public class InjectProcessor extends AbstractProcessor {
+    static final String INJECT = "jakarta.inject.Inject";
+    static final String QUALIFIER = "jakarta.inject.Qualifier";
+    static final String PROVIDER = "pers.lenwind.container.Provider";
+    static final String JAKARTA_PROVIDER = "jakarta.inject.Provider";
+    static final String MEMOIZED = "pers.lenwind.container.Memoized";
+    static final String LAZY = "pers.lenwind.container.Lazy";
+    static final String GENERATED_PROVIDER = "pers.lenwind.container.GeneratedProvider";
+    static final Set<String> LIFECYCLE = Set.of("jakarta.annotation.PostConstruct", "jakarta.annotation.PreDestroy");
+    static final String SUFFIX = "_Provider";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> components = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getEnclosingElement() instanceof TypeElement component) {
+                    components.add(component);
+                }
+            }
+        }
+        components.forEach(component -> new Component(component).plan().ifPresent(this::write));
+        return false;
+    }
+
+    private void write(Plan plan) {
+        Filer filer = processingEnv.getFiler();
+        try (Writer writer = filer.createSourceFile(plan.qualifiedName(), plan.component()).openWriter()) {
+            writer.write(plan.source());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private record Dependency(String type, String provider) {
+        String descriptor() {
+            return (provider != null ? "provider(" : "instance(") + type + ".class)";
+        }
+    }
+
+    private record Injection(String name, List<Dependency> dependencies, boolean checked) {
+    }
+
+    private record Plan(TypeElement component, String packageName, String simpleName, String componentName,
+                        List<Dependency> constructor, List<Injection> fields, List<Injection> methods, boolean checked) {
+        String qualifiedName() {
+            return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        }
+
+        String source() {
+            List<Dependency> dependencies = new ArrayList<>(constructor);
+            fields.forEach(field -> dependencies.addAll(field.dependencies()));
+            methods.forEach(method -> dependencies.addAll(method.dependencies()));
+
+            StringBuilder source = new StringBuilder();
+            if (!packageName.isEmpty()) {
+                source.append("package ").append(packageName).append(";\n\n");
+            }
+            source.append("@javax.annotation.processing.Generated(\"").append(InjectProcessor.class.getName()).append("\")\n")
+                .append("public final class ").append(simpleName)
+                .append(" extends ").append(GENERATED_PROVIDER).append("<").append(componentName).append("> {\n")
+                .append("    public ").append(simpleName).append("() {\n")
+                .append("        super(").append(componentName).append(".class");
+            dependencies.forEach(dependency -> source.append(",\n            ").append(dependency.descriptor()));
+            source.append(");\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    @SuppressWarnings(\"unchecked\")\n")
+                .append("    public ").append(componentName).append(" get(pers.lenwind.container.Context context) {\n");
+            String indent = "        ";
+            if (checked) {
+                source.append("        try {\n");
+                indent = "            ";
+            }
+            int[] index = {0};
+            source.append(indent).append(componentName).append(" instance = new ").append(componentName)
+                .append("(").append(arguments(constructor, index)).append(");\n");
+            for (Injection field : fields) {
+                source.append(indent).append("instance.").append(field.name()).append(" = ")
+                    .append(arguments(field.dependencies(), index)).append(";\n");
+            }
+            for (Injection method : methods) {
+                source.append(indent).append("instance.").append(method.name())
+                    .append("(").append(arguments(method.dependencies(), index)).append(");\n");
+            }
+            source.append(indent).append("return instance;\n");
+            if (checked) {
+                source.append("        } catch (RuntimeException e) {\n")
+                    .append("            throw e;\n")
+                    .append("        } catch (Exception e) {\n")
+                    .append("            throw new RuntimeException(e);\n")
+                    .append("        }\n");
+            }
+            return source.append("    }\n")
+                .append("}\n")
+                .toString();
+        }
+
+        private static String arguments(List<Dependency> dependencies, int[] index) {
+            StringJoiner arguments = new StringJoiner(", ");
+            for (Dependency dependency : dependencies) {
+                String type = dependency.provider() != null ? dependency.provider() + "<" + dependency.type() + ">" : dependency.type();
+                arguments.add("(" + type + ") resolve(context, " + index[0]++ + ")");
+            }
+            return arguments.toString();
+        }
+    }
+
+    private class Component {
+        private final TypeElement component;
+
+        Component(TypeElement component) {
+            this.component = component;
+        }
+
+        Optional<Plan> plan() {
+            if (!isInstantiable() || hasInheritedInjection() || hasLifecycleCallback()) {
+                return Optional.empty();
+            }
+            List<ExecutableElement> constructors = ElementFilter.constructorsIn(component.getEnclosedElements());
+            List<ExecutableElement> injectConstructors = constructors.stream()
+                .filter(c -> isInject(c) && c.getModifiers().contains(Modifier.PUBLIC)).toList();
+            if (injectConstructors.size() > 1) {
+                return Optional.empty();
+            }
+            ExecutableElement constructor = injectConstructors.isEmpty()
+                ? constructors.stream().filter(c -> c.getParameters().isEmpty()).findFirst().orElse(null)
+                : injectConstructors.get(0);
+            if (constructor == null || !isAccessible(constructor)) {
+                return Optional.empty();
+            }
+            Optional<List<Dependency>> constructorDependencies = dependencies(constructor.getParameters());
+            if (constructorDependencies.isEmpty()) {
+                return Optional.empty();
+            }
+
+            List<Injection> fields = new ArrayList<>();
+            for (VariableElement field : ElementFilter.fieldsIn(component.getEnclosedElements())) {
+                if (!isInject(field)) {
+                    continue;
+                }
+                if (!isAccessible(field) || field.getModifiers().contains(Modifier.FINAL) || field.getModifiers().contains(Modifier.STATIC)) {
+                    return Optional.empty();
+                }
+                Optional<List<Dependency>> dependency = dependencies(List.of(field));
+                if (dependency.isEmpty()) {
+                    return Optional.empty();
+                }
+                fields.add(new Injection(field.getSimpleName().toString(), dependency.get(), false));
+            }
+
+            List<Injection> methods = new ArrayList<>();
+            for (ExecutableElement method : ElementFilter.methodsIn(component.getEnclosedElements())) {
+                if (!isInject(method)) {
+                    continue;
+                }
+                if (!isAccessible(method) || method.getModifiers().contains(Modifier.ABSTRACT)
+                    || method.getModifiers().contains(Modifier.STATIC) || !method.getTypeParameters().isEmpty()) {
+                    return Optional.empty();
+                }
+                Optional<List<Dependency>> dependencies = dependencies(method.getParameters());
+                if (dependencies.isEmpty()) {
+                    return Optional.empty();
+                }
+                methods.add(new Injection(method.getSimpleName().toString(), dependencies.get(), !method.getThrownTypes().isEmpty()));
+            }
+
+            String packageName = processingEnv.getElementUtils().getPackageOf(component).getQualifiedName().toString();
+            String binaryName = processingEnv.getElementUtils().getBinaryName(component).toString();
+            String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+            boolean checked = !constructor.getThrownTypes().isEmpty() || methods.stream().anyMatch(Injection::checked);
+            return Optional.of(new Plan(component, packageName, simpleName, component.getQualifiedName().toString(),
+                constructorDependencies.get(), fields, methods, checked));
+        }
+
+        private boolean isInstantiable() {
+            if (component.getKind() != ElementKind.CLASS || component.getModifiers().contains(Modifier.ABSTRACT)
+                || !component.getTypeParameters().isEmpty()) {
+                return false;
+            }
+            for (Element element = component; element instanceof TypeElement type; element = element.getEnclosingElement()) {
+                if (type.getModifiers().contains(Modifier.PRIVATE)
+                    || type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS
+                    || type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean hasInheritedInjection() {
+            TypeMirror superclass = component.getSuperclass();
+            while (superclass.getKind() == TypeKind.DECLARED) {
+                TypeElement type = (TypeElement) ((DeclaredType) superclass).asElement();
+                if (type.getEnclosedElements().stream().anyMatch(InjectProcessor.this::isInject)) {
+                    return true;
+                }
+                superclass = type.getSuperclass();
+            }
+            return false;
+        }
+
+        private boolean hasLifecycleCallback() {
+            TypeMirror type = component.asType();
+            while (type.getKind() == TypeKind.DECLARED) {
+                TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+                if (ElementFilter.methodsIn(element.getEnclosedElements()).stream()
+                    .anyMatch(method -> method.getAnnotationMirrors().stream()
+                        .anyMatch(mirror -> LIFECYCLE.stream().anyMatch(callback -> is(mirror, callback))))) {
+                    return true;
+                }
+                type = element.getSuperclass();
+            }
+            return false;
+        }
+
+        private Optional<List<Dependency>> dependencies(List<? extends VariableElement> variables) {
+            List<Dependency> dependencies = new ArrayList<>();
+            for (VariableElement variable : variables) {
+                if (variable.getAnnotationMirrors().stream().anyMatch(mirror -> isQualifier(mirror) || is(mirror, MEMOIZED) || is(mirror, LAZY))) {
+                    return Optional.empty();
+                }
+                Optional<Dependency> dependency = dependency(variable.asType());
+                if (dependency.isEmpty()) {
+                    return Optional.empty();
+                }
+                dependencies.add(dependency.get());
+            }
+            return Optional.of(dependencies);
+        }
+
+        private Optional<Dependency> dependency(TypeMirror type) {
+            if (!(type instanceof DeclaredType declaredType) || !isAccessible(declaredType.asElement())) {
+                return Optional.empty();
+            }
+            TypeElement element = (TypeElement) declaredType.asElement();
+            List<? extends TypeMirror> arguments = declaredType.getTypeArguments();
+            if (arguments.isEmpty() && element.getTypeParameters().isEmpty()) {
+                return Optional.of(new Dependency(element.getQualifiedName().toString(), null));
+            }
+            String name = element.getQualifiedName().toString();
+            if ((name.equals(PROVIDER) || name.equals(JAKARTA_PROVIDER)) && arguments.size() == 1
+                && arguments.get(0) instanceof DeclaredType argument && argument.getTypeArguments().isEmpty()
+                && isAccessible(argument.asElement())) {
+                return Optional.of(new Dependency(((TypeElement) argument.asElement()).getQualifiedName().toString(), name));
+            }
+            return Optional.empty();
+        }
+
+        private boolean isAccessible(Element element) {
+            PackageElement componentPackage = processingEnv.getElementUtils().getPackageOf(component);
+            boolean samePackage = processingEnv.getElementUtils().getPackageOf(element).equals(componentPackage);
+            for (Element current = element; !(current instanceof PackageElement); current = current.getEnclosingElement()) {
+                Set<Modifier> modifiers = current.getModifiers();
+                if (modifiers.contains(Modifier.PRIVATE) || !samePackage && !modifiers.contains(Modifier.PUBLIC)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private boolean isInject(Element element) {
+        return element.getAnnotationMirrors().stream().anyMatch(mirror -> is(mirror, INJECT));
+    }
+
+    private boolean isQualifier(AnnotationMirror mirror) {
+        return mirror.getAnnotationType().asElement().getAnnotationMirrors().stream().anyMatch(meta -> is(meta, QUALIFIER));
+    }
+
+    private static boolean is(AnnotationMirror mirror, String annotationType) {
+        return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationType);
+    }
+}
@@ -0,0 +1,198 @@
+package pers.lenwind.container.processor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pers.lenwind.container.ComponentProvider;
+import pers.lenwind.container.Context;
+import pers.lenwind.container.ContextConfiguration;
+import pers.lenwind.container.GeneratedProvider;
+import pers.lenwind.container.Provider;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InjectProcessorTest {
+    private static final Map<String, String> SOURCES = Map.of(
+        "sample/Dependency.java", """
+            package sample;
+
+            public interface Dependency {
+            }
+            """,
+        "sample/DependencyImpl.java", """
+            package sample;
+
+            public class DependencyImpl implements Dependency {
+            }
+            """,
+        "sample/Service.java", """
+            package sample;
+
+            import jakarta.inject.Inject;
+            import pers.lenwind.container.Provider;
+
+            public class Service {
+                public final Dependency constructed;
+                @Inject
+                public Dependency field;
+                public Provider<Dependency> provider;
+                @Inject
+                public jakarta.inject.Provider<Dependency> jakartaProvider;
+
+                @Inject
+                public Service(Dependency constructed) {
+                    this.constructed = constructed;
+                }
+
+                @Inject
+                void setProvider(Provider<Dependency> provider) throws Exception {
+                    this.provider = provider;
+                }
+            }
+            """,
+        "sample/PrivateFieldService.java", """
+            package sample;
+
+            import jakarta.inject.Inject;
+
+            public class PrivateFieldService {
+                @Inject
+                private Dependency dependency;
+            }
+            """,
+        "sample/LifecycleService.java", """
+            package sample;
+
+            import jakarta.annotation.PostConstruct;
+            import jakarta.inject.Inject;
+
+            public class LifecycleService {
+                @Inject
+                public Dependency dependency;
+
+                @PostConstruct
+                void start() {
+                }
+            }
+            """,
+        "sample/LazyService.java", """
+            package sample;
+
+            import jakarta.inject.Inject;
+            import pers.lenwind.container.Lazy;
+
+            public class LazyService {
+                @Inject
+                @Lazy
+                public Dependency dependency;
+            }
+            """,
+        "sample/Outer.java", """
+            package sample;
+
+            import jakarta.inject.Inject;
+
+            public class Outer {
+                public static class Nested {
+                    @Inject
+                    public Dependency dependency;
+                }
+            }
+            """);
+
+    @TempDir
+    Path directory;
+
+    private Path sources;
+    private Path classes;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sources = Files.createDirectories(directory.resolve("sources"));
+        classes = Files.createDirectories(directory.resolve("classes"));
+        for (Map.Entry<String, String> source : SOURCES.entrySet()) {
+            Path file = sources.resolve(source.getKey());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, source.getValue());
+        }
+        compile();
+    }
+
+    @Test
+    void should_generate_provider_for_injectable_components() {
+        assertTrue(Files.exists(classes.resolve("sample/Service_Provider.class")));
+        assertTrue(Files.exists(classes.resolve("sample/Outer$Nested_Provider.class")));
+    }
+
+    @Test
+    void should_not_generate_provider_if_injection_point_not_accessible() {
+        assertFalse(Files.exists(classes.resolve("sample/PrivateFieldService_Provider.class")));
+    }
+
+    @Test
+    void should_not_generate_provider_if_component_has_lifecycle_callback() {
+        assertFalse(Files.exists(classes.resolve("sample/LifecycleService_Provider.class")));
+    }
+
+    @Test
+    void should_not_generate_provider_if_dependency_is_lazy() {
+        assertFalse(Files.exists(classes.resolve("sample/LazyService_Provider.class")));
+    }
+
+    @Test
+    void should_bind_generated_provider_and_inject_dependencies() throws Exception {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<Object> dependency = (Class<Object>) loader.loadClass("sample.Dependency");
+            Class<Object> service = (Class<Object>) loader.loadClass("sample.Service");
+            ContextConfiguration configuration = new ContextConfiguration();
+            configuration.bind(dependency, loader.loadClass("sample.DependencyImpl"));
+            configuration.bind(service, service);
+            Context context = configuration.toContext();
+
+            assertInstanceOf(GeneratedProvider.class, context.getProvider(service).get());
+            Object instance = context.getInstance(service).get();
+            assertTrue(dependency.isInstance(service.getField("constructed").get(instance)));
+            assertTrue(dependency.isInstance(service.getField("field").get(instance)));
+            Provider<?> provider = (Provider<?>) service.getField("provider").get(instance);
+            assertTrue(dependency.isInstance(provider.get(context)));
+            jakarta.inject.Provider<?> jakartaProvider = (jakarta.inject.Provider<?>) service.getField("jakartaProvider").get(instance);
+            assertTrue(dependency.isInstance(jakartaProvider.get()));
+        }
+    }
+
+    @Test
+    void should_fall_back_to_reflection_if_no_generated_provider() throws Exception {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<Object> service = (Class<Object>) loader.loadClass("sample.PrivateFieldService");
+            ContextConfiguration configuration = new ContextConfiguration();
+            configuration.bind((Class<Object>) loader.loadClass("sample.Dependency"), loader.loadClass("sample.DependencyImpl"));
+            configuration.bind(service, service);
+
+            assertInstanceOf(ComponentProvider.class, configuration.toContext().getProvider(service).get());
+        }
+    }
+
+    private void compile() throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+             var files = Files.walk(sources)) {
+            List<Path> paths = files.filter(path -> path.toString().endsWith(".java")).toList();
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+                List.of("-d", classes.toString(), "-s", classes.toString(), "-classpath", System.getProperty("java.class.path")),
+                null, fileManager.getJavaFileObjectsFromPaths(paths));
+            task.setProcessors(List.of(new InjectProcessor()));
+            assertTrue(task.call());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package pers.lenwind.container;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+public interface AsyncProvider<T> extends Provider<T> {
+    CompletableFuture<T> getAsync(Context context, Executor executor);
+}
@@ -0,0 +1,13 @@
+package pers.lenwind.container;
+
+import java.lang.annotation.Annotation;
+
+public record Binding(Class<?> type, Class<?> implementation, Object instance, Annotation[] annotations) {
+    public static <T> Binding component(Class<T> type, Class<? extends T> implementation, Annotation... annotations) {
+        return new Binding(type, implementation, null, annotations);
+    }
+
+    public static <T> Binding instance(Class<T> type, T instance, Annotation... qualifiers) {
+        return new Binding(type, null, instance, qualifiers);
+    }
+}
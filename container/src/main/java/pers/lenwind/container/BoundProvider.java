@@ -0,0 +1,28 @@
+package pers.lenwind.container;
+
+import java.util.List;
+
+class BoundProvider<T> implements Provider<T>, jakarta.inject.Provider<T> {
+    private final Context context;
+    private final Provider<T> provider;
+
+    BoundProvider(Context context, Provider<T> provider) {
+        this.context = context;
+        this.provider = provider;
+    }
+
+    @Override
+    public T get() {
+        return provider.get(context);
+    }
+
+    @Override
+    public T get(Context context) {
+        return provider.get(context);
+    }
+
+    @Override
+    public List<Descriptor> getDependencies() {
+        return provider.getDependencies();
+    }
+}
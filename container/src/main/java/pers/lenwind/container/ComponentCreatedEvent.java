@@ -0,0 +1,24 @@
+package pers.lenwind.container;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("pers.lenwind.container.ComponentCreated")
+@Label("Component Created")
+@Category("Container")
+@StackTrace(false)
+class ComponentCreatedEvent extends Event {
+    @Label("Binding")
+    String binding;
+
+    @Label("Component Type")
+    Class<?> componentType;
+
+    @Label("Dependency Resolution")
+    @Timespan
+    long resolution;
+}
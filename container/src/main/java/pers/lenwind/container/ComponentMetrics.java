@@ -0,0 +1,12 @@
+package pers.lenwind.container;
+
+/**
+ * Per-binding creation metrics. Construction time excludes the time spent resolving dependencies, and the
+ * percentiles are taken over construction time as well.
+ */
+public record ComponentMetrics(long instances, long constructionNanos, long resolutionNanos,
+                               long p50Nanos, long p90Nanos, long p99Nanos) {
+    public long totalNanos() {
+        return constructionNanos + resolutionNanos;
+    }
+}
@@ -1,5 +1,7 @@
 package pers.lenwind.container;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Inject;
 import jakarta.inject.Qualifier;
 import pers.lenwind.container.exception.BaseException;
@@ -8,80 +10,255 @@ import pers.lenwind.container.exception.MultiInjectException;
 import pers.lenwind.container.exception.NoAvailableConstructionException;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
+import java.util.function.LongConsumer;
 import java.util.stream.Stream;
 
-public class ComponentProvider<T> implements Provider<T> {
+public class ComponentProvider<T> implements AsyncProvider<T> {
+    private static final Object[] NO_DEPENDENCIES = new Object[0];
+
+    private static final MethodHandle ELEMENT = MethodHandles.arrayElementGetter(Object[].class);
+
+    private static final ClassValue<Plan> PLANS = new ClassValue<>() {
+        @Override
+        protected Plan computeValue(Class<?> componentType) {
+            return new Plan(componentType);
+        }
+    };
+
     final private Class<T> componentType;
 
-    private Constructor<T> constructor;
+    private Plan plan;
 
-    private List<Field> injectFields;
-    private List<Method> injectMethods;
     public ComponentProvider(Class<T> componentType) {
+        this(componentType, false);
+    }
+
+    ComponentProvider(Class<T> componentType, boolean deferred) {
         this.componentType = componentType;
-        init(componentType);
+        if (!deferred) {
+            plan();
+        }
     }
 
     public Class<T> getComponentType() {
         return componentType;
     }
 
-    private void init(Class<T> clazz) {
-        constructor = getConstructor(clazz);
-        injectFields = getInjectFields(clazz);
-        injectMethods = getInjectMethods(clazz);
+    private Plan plan() {
+        Plan current = plan;
+        if (current == null) {
+            plan = current = PLANS.get(componentType);
+        }
+        return current;
     }
 
     @Override
     public T get(Context context) {
+        return get(context, null);
+    }
+
+    T get(Context context, LongConsumer resolution) {
+        Plan plan = plan();
+        long start = resolution == null ? 0 : System.nanoTime();
+        Object[] values = resolve(context, componentType, plan.dependencies);
+        if (resolution != null) {
+            resolution.accept(System.nanoTime() - start);
+        }
+        return inject(plan, values);
+    }
+
+    @Override
+    public CompletableFuture<T> getAsync(Context context, Executor executor) {
+        Plan plan = plan();
+        CompletableFuture<?>[] dependencies = new CompletableFuture<?>[plan.dependencies.size()];
+        for (int i = 0; i < dependencies.length; i++) {
+            dependencies[i] = context.resolveAsync(plan.dependencies.get(i), componentType, executor);
+        }
+        return CompletableFuture.allOf(dependencies).thenApplyAsync(ignored -> {
+            Object[] values = new Object[dependencies.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = dependencies[i].join();
+            }
+            return inject(plan, values);
+        }, executor);
+    }
+
+    private T inject(Plan plan, Object[] values) {
         try {
-            constructor.trySetAccessible();
-            T instance = constructor.newInstance(toDependencies(context, constructor));
-            for (Field field : injectFields) {
-                field.trySetAccessible();
-                field.set(instance, context.get(Descriptor.of(field.getGenericType(), getQualifier(field))).get());
+            T instance = (T) (Object) plan.constructorInjection.handle().invokeExact(values);
+            for (Injection injection : plan.fieldInjections) {
+                injection.handle().invokeExact((Object) instance, values);
             }
-            for (Method method : injectMethods) {
-                method.invoke(instance, toDependencies(context, method));
+            for (Injection injection : plan.methodInjections) {
+                injection.handle().invokeExact((Object) instance, values);
             }
+            postConstruct(plan, instance);
             return instance;
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new RuntimeException(e);
         }
     }
 
-    // TODO should throw exception if multiple qualifier annotation found
-    private static Annotation getQualifier(AnnotatedElement executable) {
-        return Arrays.stream(executable.getAnnotations()).filter(f -> f.annotationType().isAnnotationPresent(Qualifier.class)).findFirst().orElse(null);
+    private static void postConstruct(Plan plan, Object instance) throws Throwable {
+        for (MethodHandle callback : plan.postConstructs) {
+            callback.invokeExact(instance);
+        }
+    }
+
+    @Override
+    public void destroy(T instance) {
+        try {
+            for (MethodHandle callback : plan().preDestroys) {
+                callback.invokeExact((Object) instance);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
     }
 
+    @Override
     public List<Descriptor> getDependencies() {
-        Stream<Descriptor> constructorDependencies = toDescriptors(Arrays.stream(constructor.getGenericParameterTypes()), Arrays.stream(constructor.getParameterAnnotations()));
-        Stream<Descriptor> fieldDependencies = toDescriptors(injectFields.stream().map(Field::getGenericType), injectFields.stream().map(Field::getAnnotations));
-        Stream<Descriptor> methodDependencies = toDescriptors(injectMethods.stream().flatMap(m -> Arrays.stream(m.getGenericParameterTypes())),
-            injectMethods.stream().flatMap(m -> Arrays.stream(m.getParameterAnnotations())));
-        return CommonUtils.concatStreamToList(constructorDependencies, fieldDependencies, methodDependencies);
+        return plan().dependencies;
     }
 
-    private Stream<Descriptor> toDescriptors(Stream<Type> types, Stream<Annotation[]> qualifiers) {
-        return CommonUtils.zipStream(types, qualifiers).stream().map(this::toDescriptor);
+    private static Annotation getQualifier(Class<?> componentType, Annotation[] annotations) {
+        List<Annotation> qualifiers = Arrays.stream(annotations)
+            .filter(f -> f.annotationType().isAnnotationPresent(Qualifier.class)).toList();
+        if (qualifiers.size() > 1) {
+            throw new IllegalInjectionException(componentType, "inject.qualifier.multiple");
+        }
+        return qualifiers.isEmpty() ? null : qualifiers.get(0);
     }
 
-    private Descriptor toDescriptor(Map.Entry<Type, Annotation[]> entry) {
-        Type type = entry.getKey();
-        Annotation qualifier = Arrays.stream(entry.getValue())
-            .filter(a -> a.annotationType().isAnnotationPresent(Qualifier.class))
-            .findFirst()
-            .orElse(null);
-        return Descriptor.of(type, qualifier);
+    private static Descriptor[] toDescriptors(Class<?> componentType, Executable executable) {
+        Type[] types = executable.getGenericParameterTypes();
+        Annotation[][] annotations = executable.getParameterAnnotations();
+        return CommonUtils.zipStream(Arrays.stream(types), Arrays.stream(annotations)).stream()
+            .map(entry -> toDescriptor(componentType, entry.getKey(), entry.getValue()))
+            .toArray(Descriptor[]::new);
     }
 
-    private static Object[] toDependencies(Context context, Executable executable) {
-        return Arrays.stream(executable.getGenericParameterTypes())
-            .map(type -> context.get(Descriptor.of(type, getQualifier(executable))).get()).toArray();
+    private static Descriptor toDescriptor(Class<?> componentType, Type type, Annotation[] annotations) {
+        Descriptor descriptor = Descriptor.of(type, getQualifier(componentType, annotations));
+        if (descriptor.isCollection() && descriptor.qualifier() != null) {
+            throw new IllegalInjectionException(componentType, "inject.collection.qualifier");
+        }
+        if (Arrays.stream(annotations).anyMatch(a -> a.annotationType() == Lazy.class)) {
+            if (descriptor.kind() != Descriptor.Kind.INSTANCE || !descriptor.type().isInterface()) {
+                throw new IllegalInjectionException(componentType, "inject.lazy.interface");
+            }
+            return descriptor.lazy();
+        }
+        if (Arrays.stream(annotations).noneMatch(a -> a.annotationType() == Memoized.class)) {
+            return descriptor;
+        }
+        if (descriptor.kind() != Descriptor.Kind.PROVIDER) {
+            throw new IllegalInjectionException(componentType, "inject.memoized.provider");
+        }
+        return descriptor.memoized();
+    }
+
+    private static Object[] resolve(Context context, Class<?> requester, List<Descriptor> descriptors) {
+        if (descriptors.isEmpty()) {
+            return NO_DEPENDENCIES;
+        }
+        Object[] values = new Object[descriptors.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = context.resolve(descriptors.get(i), requester);
+        }
+        return values;
+    }
+
+    /**
+     * Adapts a member handle to read its arguments straight out of the component's shared argument array,
+     * starting at {@code offset}, so a member never needs a copy of its own slice.
+     */
+    private static MethodHandle bind(MethodHandle handle, int offset, boolean receiver) {
+        int first = receiver ? 1 : 0;
+        int count = handle.type().parameterCount() - first;
+        MethodHandle generic = receiver
+            ? handle.asType(MethodType.genericMethodType(count + 1).changeReturnType(void.class))
+            : handle.asType(MethodType.genericMethodType(count));
+        MethodHandle[] getters = new MethodHandle[count];
+        for (int i = 0; i < count; i++) {
+            getters[i] = MethodHandles.insertArguments(ELEMENT, 1, offset + i);
+        }
+        MethodHandle filtered = MethodHandles.filterArguments(generic, first, getters);
+        int[] reorder = new int[first + count];
+        Arrays.fill(reorder, first, reorder.length, first);
+        return MethodHandles.permuteArguments(filtered, receiver
+            ? MethodType.methodType(void.class, Object.class, Object[].class)
+            : MethodType.methodType(Object.class, Object[].class), reorder);
+    }
+
+    private static MethodHandle unreflect(MethodHandles.Lookup lookup, AccessibleObject member) {
+        try {
+            member.trySetAccessible();
+            if (member instanceof Constructor<?> constructor) {
+                return lookup.unreflectConstructor(constructor);
+            }
+            if (member instanceof Field field) {
+                return lookup.unreflectSetter(field);
+            }
+            return lookup.unreflect((Method) member);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private record Injection(MethodHandle handle, Descriptor[] dependencies) {
+    }
+
+    private static final class Plan {
+        private final Injection constructorInjection;
+        private final Injection[] fieldInjections;
+        private final Injection[] methodInjections;
+        private final MethodHandle[] postConstructs;
+        private final MethodHandle[] preDestroys;
+        private final List<Descriptor> dependencies;
+
+        private Plan(Class<?> componentType) {
+            Constructor<?> constructor = getConstructor(componentType);
+            List<Field> injectFields = getInjectFields(componentType);
+            List<Method> injectMethods = getInjectMethods(componentType);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            int offset = 0;
+            constructorInjection = new Injection(
+                bind(unreflect(lookup, constructor), offset, false),
+                toDescriptors(componentType, constructor));
+            offset += constructor.getParameterCount();
+            fieldInjections = new Injection[injectFields.size()];
+            for (int i = 0; i < fieldInjections.length; i++) {
+                Field field = injectFields.get(i);
+                fieldInjections[i] = new Injection(
+                    bind(unreflect(lookup, field), offset++, true),
+                    new Descriptor[]{toDescriptor(componentType, field.getGenericType(), field.getAnnotations())});
+            }
+            methodInjections = new Injection[injectMethods.size()];
+            for (int i = 0; i < methodInjections.length; i++) {
+                Method method = injectMethods.get(i);
+                methodInjections[i] = new Injection(bind(unreflect(lookup, method), offset, true), toDescriptors(componentType, method));
+                offset += method.getParameterCount();
+            }
+            postConstructs = callbacks(lookup, getLifecycleMethods(componentType, PostConstruct.class));
+            preDestroys = callbacks(lookup, getLifecycleMethods(componentType, PreDestroy.class));
+            dependencies = CommonUtils.concatStreamToList(
+                Arrays.stream(constructorInjection.dependencies()),
+                Arrays.stream(fieldInjections).flatMap(injection -> Arrays.stream(injection.dependencies())),
+                Arrays.stream(methodInjections).flatMap(injection -> Arrays.stream(injection.dependencies())));
+        }
     }
 
     private static <T> Constructor<T> getConstructor(Class<T> implementation) {
@@ -116,11 +293,12 @@ public class ComponentProvider<T> implements Provider<T> {
 
 
     private static List<Method> getInjectMethods(Class<?> componentType) {
+        List<Method> noInjectMethods = noInjectMethods(componentType).toList();
         List<Method> methods = getMembers(componentType,
             (superComponentType, resultMethods) -> Arrays.stream(superComponentType.getDeclaredMethods())
                 .filter(ComponentProvider::isInjectAnnotationPresent)
                 .filter(method -> isOverrideMethodInStream(method, resultMethods.stream()))
-                .filter(method -> isOverrideMethodInStream(method, noInjectMethods(componentType)))
+                .filter(method -> isOverrideMethodInStream(method, noInjectMethods.stream()))
                 .toList());
         if (methods.stream().anyMatch(method -> method.getTypeParameters().length > 0)) {
             throw new IllegalInjectionException(componentType, "inject.method.type-parameter");
@@ -129,6 +307,32 @@ public class ComponentProvider<T> implements Provider<T> {
         return methods;
     }
 
+    private static List<Method> getLifecycleMethods(Class<?> componentType, Class<? extends Annotation> callback) {
+        List<Method> methods = new ArrayList<>();
+        List<Method> overriding = new ArrayList<>();
+        for (Class<?> currentType = componentType; currentType != Object.class; currentType = currentType.getSuperclass()) {
+            for (Method method : currentType.getDeclaredMethods()) {
+                if (!method.isAnnotationPresent(callback)
+                    || !Modifier.isPrivate(method.getModifiers()) && !isOverrideMethodInStream(method, overriding.stream())) {
+                    continue;
+                }
+                if (method.getParameterCount() > 0 || Modifier.isStatic(method.getModifiers())) {
+                    throw new IllegalInjectionException(componentType, "lifecycle.method.illegal");
+                }
+                methods.add(method);
+            }
+            overriding.addAll(Arrays.asList(currentType.getDeclaredMethods()));
+        }
+        Collections.reverse(methods);
+        return methods;
+    }
+
+    private static MethodHandle[] callbacks(MethodHandles.Lookup lookup, List<Method> methods) {
+        return methods.stream()
+            .map(method -> unreflect(lookup, method).asType(MethodType.methodType(void.class, Object.class)))
+            .toArray(MethodHandle[]::new);
+    }
+
     private static <Member> List<Member> getMembers(Class<?> componentType, BiFunction<Class<?>, List<Member>, List<Member>> getMembersBySuperClass) {
         Class<?> currentType = componentType;
         List<Member> members = new ArrayList<>();
@@ -1,68 +1,471 @@
 package pers.lenwind.container;
 
-import pers.lenwind.container.exception.CyclicDependencyException;
 import pers.lenwind.container.exception.DependencyNotFoundException;
 
 import java.lang.annotation.Annotation;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.Stack;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-public class Context {
-    private Map<Ref, Provider<?>> container;
+/**
+ * An immutable view of the bindings a {@link ContextConfiguration} held when it was built. Bindings are
+ * copied into final fields while the context is constructed, so later changes to the configuration are
+ * not seen and any thread may resolve from a context once it has been handed over. Scoped providers
+ * synchronize their own state; a singleton is created once no matter how many threads ask for it.
+ * <p>
+ * {@link #rebind(ContextConfiguration)} builds a new snapshot next to the current one and publishes it in
+ * a single volatile write. Resolutions that started earlier, and providers handed out before, finish
+ * against the snapshot they began with. Scoped providers the new snapshot no longer uses are kept alive
+ * for one more rebind, so work still running on the replaced snapshot can finish, and are destroyed by the
+ * rebind after that, or when the context is closed.
+ */
+public class Context implements AutoCloseable {
+    private static final System.Logger LOGGER = System.getLogger(Context.class.getName());
+    private static final int RETAINED_REBINDS = 1;
+    private static final Object[] NO_INSTANCES = new Object[0];
+    private static final Provider<?>[] NO_PROVIDERS = new Provider<?>[0];
 
+    private final Context parent;
+
+    private final Registry registry;
+
+    private final DependencyGraph graph;
+
+    private final Map<Class<?>, Ref[]> memberRefs;
+
+    private final Map<Class<?>, Provider<?>[]> members;
+
+    private final ConcurrentHashMap<Provider<?>, BoundProvider<?>> handles = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private volatile Context current = this;
+
+    private final Deque<List<ScopedProvider<?>>> retired = new ArrayDeque<>();
 
     public Context(Map<Ref, Provider<?>> initialCache) {
-        this.container = initialCache;
-        this.container.forEach(((ref, provider) -> {
-            if (provider instanceof ComponentProvider<?> componentProvider) {
-                checkDependencies(new Descriptor(componentProvider.getComponentType(), false, ref.getQualifier()),
-                    componentProvider.getDependencies(), new Stack<>());
+        this.parent = null;
+        this.registry = new Registry(initialCache);
+        this.graph = DependencyGraph.of(registry);
+        this.graph.validate();
+        this.memberRefs = collectMembers();
+        this.members = resolveMembers();
+    }
+
+    Context(Map<Ref, Provider<?>> initialCache, Path snapshot) {
+        this.parent = null;
+        this.registry = new Registry(initialCache);
+        this.graph = DependencyGraph.of(registry, snapshot);
+        this.memberRefs = collectMembers();
+        this.members = resolveMembers();
+    }
+
+    Context(Map<Ref, Provider<?>> overrides, Context parent) {
+        this.parent = parent;
+        Map<Ref, Provider<?>> bindings = new LinkedHashMap<>(overrides);
+        Map<Ref, Provider<?>> inherited = new HashMap<>();
+        for (Ref ref : parent.dependents(overrides.keySet())) {
+            Provider<?> provider = parent.lookup(ref.getType(), ref.getQualifier());
+            if (provider == null || bindings.containsKey(ref)) {
+                continue;
+            }
+            Provider<?> renewed = provider instanceof ScopedProvider<?> scoped ? scoped.renew() : provider;
+            if (renewed != provider) {
+                bindings.put(ref, renewed);
+            } else {
+                inherited.put(ref, provider);
             }
-        }));
+        }
+        this.registry = new Registry(bindings);
+        this.graph = DependencyGraph.of(registry, inherited, ref -> parent.lookup(ref.getType(), ref.getQualifier()) != null);
+        this.graph.validate();
+        this.memberRefs = collectMembers();
+        this.members = resolveMembers();
+    }
+
+    private Context(Registry registry, DependencyGraph graph) {
+        this.parent = null;
+        this.registry = registry;
+        this.graph = graph;
+        this.memberRefs = collectMembers();
+        this.members = resolveMembers();
+    }
+
+    private Map<Class<?>, Ref[]> collectMembers() {
+        Map<Class<?>, Set<Ref>> collected = new IdentityHashMap<>();
+        registry.forEach((ref, provider) -> collected.computeIfAbsent(ref.getType(), type -> {
+            Ref[] inherited = parent == null ? null : parent.memberRefs(type);
+            return inherited == null ? new LinkedHashSet<>() : new LinkedHashSet<>(Arrays.asList(inherited));
+        }).add(ref));
+        Map<Class<?>, Ref[]> result = new IdentityHashMap<>(collected.size());
+        collected.forEach((type, refs) -> result.put(type, refs.toArray(Ref[]::new)));
+        return result;
+    }
+
+    private Map<Class<?>, Provider<?>[]> resolveMembers() {
+        Map<Class<?>, Provider<?>[]> result = new IdentityHashMap<>(memberRefs.size());
+        memberRefs.forEach((type, refs) -> result.put(type, Arrays.stream(refs)
+            .map(ref -> lookup(ref.getType(), ref.getQualifier())).toArray(Provider<?>[]::new)));
+        return result;
+    }
+
+    private Ref[] memberRefs(Class<?> type) {
+        Ref[] refs = memberRefs.get(type);
+        return refs != null || parent == null ? refs : parent.memberRefs(type);
+    }
+
+    private Provider<?>[] members(Class<?> type) {
+        Provider<?>[] providers = members.get(type);
+        return providers != null || parent == null ? providers : parent.members(type);
+    }
+
+    public ContextConfiguration child() {
+        return new ContextConfiguration(current);
     }
 
     public <T> Optional<T> getInstance(Class<T> type, Annotation qualifier) {
-        return Optional.ofNullable(container.get(Ref.of(type, qualifier))).map(provider -> (T) provider.get(this));
+        Context view = open();
+        return Optional.ofNullable(view.lookup(type, qualifier)).map(provider -> (T) provider.get(view));
     }
 
     public <T> Optional<T> getInstance(Class<T> type) {
         return getInstance(type, null);
     }
 
+    public <T> CompletableFuture<T> getInstanceAsync(Class<T> type, Executor executor) {
+        return getInstanceAsync(type, null, executor);
+    }
+
+    public <T> CompletableFuture<T> getInstanceAsync(Class<T> type, Annotation qualifier, Executor executor) {
+        Context view = open();
+        Provider<?> provider = view.lookup(type, qualifier);
+        if (provider == null) {
+            return CompletableFuture.failedFuture(new DependencyNotFoundException(null, type));
+        }
+        try {
+            return (CompletableFuture<T>) view.construct(provider, executor);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public <T> Optional<Lease<T>> lease(Class<T> type) {
+        return lease(type, null);
+    }
+
+    public <T> Optional<Lease<T>> lease(Class<T> type, Annotation qualifier) {
+        Context view = open();
+        return Optional.ofNullable((Provider<T>) view.lookup(type, qualifier)).map(provider ->
+            provider instanceof PooledProvider<T> pool ? pool.lease(view) : new Lease<>(provider.get(view), null));
+    }
+
+    public Optional<PoolStats> getPoolStats(Class<?> type, Annotation qualifier) {
+        return Optional.ofNullable(current.lookup(type, qualifier))
+            .filter(provider -> provider instanceof PooledProvider<?>)
+            .map(provider -> ((PooledProvider<?>) provider).stats());
+    }
+
+    public <T> List<T> getInstances(Class<T> type) {
+        return (List<T>) Collections.unmodifiableList(Arrays.asList(open().instances(type)));
+    }
+
     public <T> Optional<Provider<T>> getProvider(Class<T> type) {
         return getProvider(type, null);
     }
 
     public <T> Optional<Provider<T>> getProvider(Class<T> type, Annotation qualifier) {
-        return Optional.ofNullable(container.get(Ref.of(type, qualifier))).map(p -> (Provider<T>) p);
+        return Optional.ofNullable((Provider<T>) current.lookup(type, qualifier));
     }
 
-    Optional get(Descriptor descriptor) {
-        return descriptor.isProvider() ? getProvider(descriptor.type(), descriptor.qualifier())
-            : getInstance(descriptor.type(), descriptor.qualifier());
+    public MemoryFootprint footprint() {
+        Context view = current;
+        return FootprintEstimator.estimate(view.registry, view.graph);
     }
 
-    private void checkDependencies(Descriptor descriptor, List<Descriptor> dependencies, Stack<Descriptor> dependencyStack) {
-        if (dependencyStack.contains(descriptor)) {
-            throw new CyclicDependencyException(dependencyStack.stream().toList());
+    public synchronized void rebind(ContextConfiguration changes) {
+        Context previous = current;
+        current = previous.rebuild(changes.bindings());
+        retired.push(previous.retire(current));
+        if (retired.size() > RETAINED_REBINDS) {
+            try {
+                destroy(retired.removeLast());
+            } catch (RuntimeException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Failed to destroy components retired by rebind", e);
+            }
         }
-        dependencyStack.push(descriptor);
-        dependencies.forEach(dependency -> {
-            Provider<?> dependencyProvider = container.get(dependency.toRef());
-            if (dependencyProvider == null) {
-                throw new DependencyNotFoundException(descriptor.type(), dependency.type());
+    }
+
+    private List<ScopedProvider<?>> retire(Context next) {
+        Set<Provider<?>> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        next.registry.forEach((ref, provider) -> kept.add(provider));
+        List<ScopedProvider<?>> retired = new ArrayList<>();
+        int[] order = graph.topologicalOrder();
+        for (int i = order.length - 1; i >= 0; i--) {
+            if (graph.isLocal(order[i]) && graph.provider(order[i]) instanceof ScopedProvider<?> scoped && !kept.contains(scoped)) {
+                retired.add(scoped);
             }
-            if (dependency.isProvider()) {
-                return;
+        }
+        return retired;
+    }
+
+    private Context rebuild(Map<Ref, Provider<?>> overrides) {
+        Set<Ref> affected = graph.dependents(overrides.keySet());
+        Map<Ref, Provider<?>> bindings = new LinkedHashMap<>(registry.size() + overrides.size());
+        registry.forEach((ref, provider) -> bindings.put(ref,
+            affected.contains(ref) && provider instanceof ScopedProvider<?> scoped ? scoped.renew() : provider));
+        bindings.putAll(overrides);
+        if (parent != null) {
+            return new Context(bindings, parent);
+        }
+        Registry rebound = new Registry(bindings);
+        return new Context(rebound, graph.rebind(rebound, overrides.keySet()));
+    }
+
+    private Context open() {
+        if (closed.get()) {
+            throw new IllegalStateException("context is closed");
+        }
+        return current;
+    }
+
+    void initialize(Executor executor) {
+        Context view = current;
+        if (view != this) {
+            view.initialize(executor);
+            return;
+        }
+        CompletableFuture<?>[] components = new CompletableFuture<?>[graph.size()];
+        for (int node : graph.topologicalOrder()) {
+            CompletableFuture<Void> dependencies = CompletableFuture.allOf(Arrays.stream(graph.dependencies(node))
+                .mapToObj(dependency -> components[dependency]).toArray(CompletableFuture[]::new));
+            Provider<?> provider = graph.provider(node);
+            components[node] = provider instanceof SingletonProvider<?>
+                ? dependencies.thenRunAsync(() -> provider.get(this), executor)
+                : dependencies;
+        }
+        try {
+            CompletableFuture.allOf(components).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
-            // TODO singleton type provider
-            if (dependencyProvider instanceof ComponentProvider<?> componentProvider) {
-                checkDependencies(new Descriptor(componentProvider.getComponentType(), false, dependency.qualifier()),
-                    componentProvider.getDependencies(), dependencyStack);
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        close(ForkJoinPool.commonPool());
+    }
+
+    public void close(Executor executor) {
+        Context view = current;
+        if (view != this) {
+            closed.set(true);
+            try {
+                view.close(executor);
+            } finally {
+                closeRetired();
+            }
+            return;
+        }
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        List<List<Integer>> dependents = new ArrayList<>(graph.size());
+        for (int node = 0; node < graph.size(); node++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int node = 0; node < graph.size(); node++) {
+            for (int dependency : graph.dependencies(node)) {
+                dependents.get(dependency).add(node);
+            }
+        }
+        Queue<RuntimeException> failures = new ConcurrentLinkedQueue<>();
+        CompletableFuture<?>[] components = new CompletableFuture<?>[graph.size()];
+        int[] order = graph.topologicalOrder();
+        for (int i = order.length - 1; i >= 0; i--) {
+            int node = order[i];
+            CompletableFuture<Void> released = CompletableFuture.allOf(dependents.get(node).stream()
+                .map(dependent -> components[dependent]).toArray(CompletableFuture[]::new));
+            Provider<?> provider = graph.provider(node);
+            components[node] = graph.isLocal(node) && provider instanceof ScopedProvider<?> scoped
+                ? released.thenRunAsync(() -> {
+                    try {
+                        scoped.close();
+                    } catch (RuntimeException e) {
+                        failures.add(e);
+                    }
+                }, executor)
+                : released;
+        }
+        CompletableFuture.allOf(components).join();
+        RuntimeException failure = failures.poll();
+        if (failure != null) {
+            failures.forEach(failure::addSuppressed);
+            throw failure;
+        }
+    }
+
+    private synchronized void closeRetired() {
+        RuntimeException failure = null;
+        for (List<ScopedProvider<?>> batch = retired.poll(); batch != null; batch = retired.poll()) {
+            try {
+                destroy(batch);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static void destroy(List<ScopedProvider<?>> providers) {
+        RuntimeException failure = null;
+        for (ScopedProvider<?> scoped : providers) {
+            try {
+                scoped.close();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
             }
-        });
-        dependencyStack.pop();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    Object resolve(Descriptor descriptor) {
+        return resolve(descriptor, null);
+    }
+
+    Object resolve(Descriptor descriptor, Class<?> requester) {
+        return switch (descriptor.kind()) {
+            case INSTANCE -> provider(descriptor, requester).get(this);
+            case PROVIDER -> handle(provider(descriptor, requester));
+            case MEMOIZED_PROVIDER -> new MemoizingProvider<>(this, provider(descriptor, requester));
+            case LAZY -> LazyProxy.of(this, descriptor.type(), provider(descriptor, requester));
+            case LIST -> Collections.unmodifiableList(Arrays.asList(instances(descriptor.type())));
+            case SET -> Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(instances(descriptor.type()))));
+        };
+    }
+
+    CompletableFuture<?> resolveAsync(Descriptor descriptor, Class<?> requester, Executor executor) {
+        try {
+            return switch (descriptor.kind()) {
+                case INSTANCE -> construct(provider(descriptor, requester), executor);
+                case LIST -> constructAll(descriptor.type(), executor)
+                    .thenApply(instances -> Collections.unmodifiableList(Arrays.asList(instances)));
+                case SET -> constructAll(descriptor.type(), executor)
+                    .thenApply(instances -> Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(instances))));
+                default -> CompletableFuture.completedFuture(resolve(descriptor, requester));
+            };
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    CompletableFuture<?> construct(Provider<?> provider, Executor executor) {
+        if (provider instanceof AsyncProvider<?> asyncProvider) {
+            return asyncProvider.getAsync(this, executor);
+        }
+        return settle(provider, executor, new IdentityHashMap<>()).thenApplyAsync(ignored -> provider.get(this), executor);
+    }
+
+    private CompletableFuture<Object[]> constructAll(Class<?> type, Executor executor) {
+        Provider<?>[] providers = members(type);
+        if (providers == null) {
+            return CompletableFuture.completedFuture(NO_INSTANCES);
+        }
+        CompletableFuture<?>[] instances = new CompletableFuture<?>[providers.length];
+        for (int i = 0; i < providers.length; i++) {
+            instances[i] = construct(providers[i], executor);
+        }
+        return CompletableFuture.allOf(instances).thenApply(ignored -> Arrays.stream(instances).map(CompletableFuture::join).toArray());
+    }
+
+    private CompletableFuture<Void> settle(Provider<?> provider, Executor executor, Map<Provider<?>, CompletableFuture<Void>> settled) {
+        CompletableFuture<Void> known = settled.get(provider);
+        if (known != null) {
+            return known;
+        }
+        List<CompletableFuture<?>> singletons = new ArrayList<>();
+        for (Descriptor dependency : provider.getDependencies()) {
+            if (dependency.isDeferred()) {
+                continue;
+            }
+            Provider<?>[] targets = dependency.isCollection()
+                ? Objects.requireNonNullElse(members(dependency.type()), NO_PROVIDERS)
+                : new Provider<?>[]{lookup(dependency.type(), dependency.qualifier())};
+            for (Provider<?> target : targets) {
+                if (target instanceof SingletonProvider<?> singleton) {
+                    singletons.add(singleton.getAsync(this, executor));
+                } else if (target != null) {
+                    singletons.add(settle(target, executor, settled));
+                }
+            }
+        }
+        CompletableFuture<Void> result = CompletableFuture.allOf(singletons.toArray(CompletableFuture[]::new));
+        settled.put(provider, result);
+        return result;
+    }
+
+    private Provider<?> provider(Descriptor descriptor, Class<?> requester) {
+        Provider<?> provider = lookup(descriptor.type(), descriptor.qualifier());
+        if (provider == null) {
+            throw new DependencyNotFoundException(requester, descriptor.type());
+        }
+        return provider;
+    }
+
+    private Object[] instances(Class<?> type) {
+        Provider<?>[] providers = members(type);
+        if (providers == null) {
+            return NO_INSTANCES;
+        }
+        Object[] instances = new Object[providers.length];
+        for (int i = 0; i < providers.length; i++) {
+            instances[i] = providers[i].get(this);
+        }
+        return instances;
+    }
+
+    private BoundProvider<?> handle(Provider<?> provider) {
+        BoundProvider<?> handle = handles.get(provider);
+        return handle != null ? handle : handles.computeIfAbsent(provider, p -> new BoundProvider<>(this, p));
+    }
+
+    Provider<?> lookup(Class<?> type, Annotation qualifier) {
+        Provider<?> provider = registry.get(type, qualifier);
+        return provider == null && parent != null ? parent.lookup(type, qualifier) : provider;
+    }
+
+    private Set<Ref> dependents(Set<Ref> changed) {
+        Set<Ref> result = new HashSet<>();
+        Set<Ref> frontier = changed;
+        while (!frontier.isEmpty()) {
+            Set<Ref> found = new HashSet<>(graph.dependents(frontier));
+            if (parent != null) {
+                found.addAll(parent.dependents(frontier));
+            }
+            found.removeAll(result);
+            result.addAll(found);
+            frontier = found;
+        }
+        return result;
     }
 }
@@ -1,14 +1,62 @@
 package pers.lenwind.container;
 
+import jakarta.inject.Scope;
+import jakarta.inject.Singleton;
+import pers.lenwind.container.exception.DuplicateBindingException;
+import pers.lenwind.container.exception.UnsupportedBindException;
+
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 
 public class ContextConfiguration {
-    private final Map<Ref, Provider<?>> initialCache = new HashMap<>();
+    private final Map<Ref, Provider<?>> initialCache = new LinkedHashMap<>();
+
+    private final Map<Class<? extends Annotation>, ScopeProvider> scopes = new HashMap<>();
+
+    private final Context parent;
+
+    private Instrumentation instrumentation;
+
+    public ContextConfiguration() {
+        this(null);
+    }
+
+    ContextConfiguration(Context parent) {
+        this.parent = parent;
+        scope(Singleton.class, SingletonProvider::new);
+        scope(Pooled.class, new ScopeProvider() {
+            @Override
+            public Provider<?> create(Provider<?> provider) {
+                return new PooledProvider<>(provider, PooledProvider.DEFAULT_CAPACITY);
+            }
+
+            @Override
+            public Provider<?> create(Provider<?> provider, Annotation scope) {
+                return new PooledProvider<>(provider, ((Pooled) scope).capacity());
+            }
+        });
+    }
+
+    public void scope(Class<? extends Annotation> scopeType, ScopeProvider provider) {
+        scopes.put(scopeType, provider);
+    }
+
+    public Instrumentation instrument() {
+        if (instrumentation == null) {
+            instrumentation = new Instrumentation();
+        }
+        return instrumentation;
+    }
 
     public <Type> void component(Class<Type> componentType, Type instance) {
         initialCache.put(Ref.of(componentType), context -> instance);
@@ -19,14 +67,18 @@ public class ContextConfiguration {
     }
 
     private void innerComponent(Class<?> componentType, Object instance, Annotation[] qualifiers) {
+        Provider<?> provider = context -> instance;
+        if (qualifiers.length == 0) {
+            initialCache.put(Ref.of(componentType), provider);
+        }
         for (Annotation qualifier : qualifiers) {
-            initialCache.put(Ref.of(componentType, qualifier), context -> instance);
+            initialCache.put(Ref.of(componentType, qualifier), provider);
         }
     }
 
     public <ComponentType>
     void bind(Class<ComponentType> componentType, Class<? extends ComponentType> instanceType) {
-        initialCache.put(Ref.of(componentType), new ComponentProvider<>(instanceType));
+        innerBind(componentType, instanceType, new Annotation[0]);
     }
 
     public <ComponentType>
@@ -34,18 +86,111 @@ public class ContextConfiguration {
         innerBind(componentType, instanceType, qualifiers);
     }
 
-    private void innerBind(Class<?> componentType, Class<?> instanceType, Annotation[] qualifiers) {
-        for (Annotation qualifier : qualifiers) {
-            initialCache.put(Ref.of(componentType, qualifier), new ComponentProvider<>(instanceType));
+    public void bindAll(Collection<Binding> bindings) {
+        for (Binding binding : bindings) {
+            if (binding.instance() != null) {
+                innerComponent(binding.type(), binding.instance(), binding.annotations());
+            } else {
+                innerBind(binding.type(), binding.implementation(), binding.annotations());
+            }
+        }
+    }
+
+    public void merge(ContextConfiguration... modules) {
+        Map<Ref, Provider<?>> merged = new LinkedHashMap<>();
+        for (ContextConfiguration module : modules) {
+            Map<Provider<?>, Provider<?>> renewed = new IdentityHashMap<>();
+            for (Map.Entry<Ref, Provider<?>> binding : module.initialCache.entrySet()) {
+                Ref ref = binding.getKey();
+                Provider<?> provider = renewed.computeIfAbsent(binding.getValue(), ContextConfiguration::renew);
+                if (initialCache.containsKey(ref) || merged.putIfAbsent(ref, provider) != null) {
+                    throw new DuplicateBindingException(ref.getType(), ref.getQualifier());
+                }
+            }
         }
+        initialCache.putAll(merged);
+    }
+
+    private void innerBind(Class<?> componentType, Class<?> instanceType, Annotation[] annotations) {
+        List<Annotation> qualifiers = Arrays.stream(annotations).filter(a -> !isScope(a)).toList();
+        List<Ref> refs = qualifiers.isEmpty()
+            ? List.of(Ref.of(componentType))
+            : qualifiers.stream().map(qualifier -> Ref.of(componentType, qualifier)).toList();
+        Provider<?> provider = componentProvider(instanceType);
+        if (instrumentation != null) {
+            provider = instrumentation.instrument(refs, provider);
+        }
+        provider = scoped(instanceType, provider, annotations);
+        for (Ref ref : refs) {
+            initialCache.put(ref, provider);
+        }
+    }
+
+    private static Provider<?> componentProvider(Class<?> instanceType) {
+        return GeneratedProvider.of(instanceType).orElseGet(() -> new ComponentProvider<>(instanceType, true));
+    }
+
+    private Provider<?> scoped(Class<?> instanceType, Provider<?> provider, Annotation[] annotations) {
+        Optional<Annotation> scope = Arrays.stream(annotations).filter(ContextConfiguration::isScope).findFirst()
+            .or(() -> Arrays.stream(instanceType.getAnnotations()).filter(ContextConfiguration::isScope).findFirst());
+        if (scope.isEmpty()) {
+            return provider;
+        }
+        ScopeProvider scopeProvider = scopes.get(scope.get().annotationType());
+        if (scopeProvider == null) {
+            throw new UnsupportedBindException(instanceType, "scope.unsupported");
+        }
+        return create(scopeProvider, provider, scope.get());
+    }
+
+    private static Provider<?> create(ScopeProvider scopeProvider, Provider<?> provider, Annotation scope) {
+        Provider<?> scoped = scopeProvider.create(provider, scope);
+        if (scoped instanceof ScopedProvider<?> renewable) {
+            ((ScopedProvider<Object>) renewable).renewWith(() -> (Provider<Object>) create(scopeProvider, provider, scope));
+        }
+        return scoped;
+    }
+
+    private static boolean isScope(Annotation annotation) {
+        return annotation.annotationType().isAnnotationPresent(Scope.class);
     }
 
     public void from(Config config) {
         new DSL(config).init();
     }
 
+    /**
+     * The bindings with every scoped provider renewed, so each context built from this configuration owns its
+     * scoped instances. A provider bound under several qualifiers stays shared between them.
+     */
+    Map<Ref, Provider<?>> bindings() {
+        Map<Provider<?>, Provider<?>> renewed = new IdentityHashMap<>();
+        Map<Ref, Provider<?>> bindings = new LinkedHashMap<>(initialCache.size() * 4 / 3 + 1);
+        initialCache.forEach((ref, provider) -> bindings.put(ref, renewed.computeIfAbsent(provider, ContextConfiguration::renew)));
+        return bindings;
+    }
+
+    private static Provider<?> renew(Provider<?> provider) {
+        return provider instanceof ScopedProvider<?> scoped ? scoped.renew() : provider;
+    }
+
     public Context toContext() {
-        return new Context(initialCache);
+        return parent == null ? new Context(bindings()) : new Context(bindings(), parent);
+    }
+
+    /**
+     * Builds the context, reusing the dependency graph stored at {@code snapshot} when it still matches the
+     * bindings and their class files, and writing it there otherwise. Child configurations are validated
+     * against their parent every time, so the snapshot is not used for them.
+     */
+    public Context toContext(Path snapshot) {
+        return parent == null ? new Context(bindings(), snapshot) : toContext();
+    }
+
+    public Context toContext(ForkJoinPool eagerPool) {
+        Context context = toContext();
+        context.initialize(eagerPool);
+        return context;
     }
 
     class DSL {
@@ -0,0 +1,354 @@
+package pers.lenwind.container;
+
+import pers.lenwind.container.exception.CyclicDependencyException;
+import pers.lenwind.container.exception.DependencyNotFoundException;
+import pers.lenwind.container.exception.IllegalInjectionException;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+final class DependencyGraph {
+    private static final int UNVISITED = 0;
+    private static final int VISITING = 1;
+    private static final int VISITED = 2;
+    private static final int[] NO_NODES = new int[0];
+    private static final System.Logger LOGGER = System.getLogger(DependencyGraph.class.getName());
+
+    private final Ref[] refs;
+    private final Descriptor[] nodes;
+    private final Provider<?>[] providers;
+    private final int local;
+    private int[][] edges;
+    private volatile int[] order;
+
+    private final Map<Ref, Integer> indexes;
+    private volatile Reverse dependents;
+    private Map<Class<?>, int[]> members;
+
+    private DependencyGraph(List<Ref> refs, List<Provider<?>> providers, int local) {
+        this.local = local;
+        this.refs = refs.toArray(Ref[]::new);
+        this.providers = providers.toArray(Provider<?>[]::new);
+        this.nodes = new Descriptor[this.refs.length];
+        this.indexes = new IdentityHashMap<>(this.refs.length);
+        for (int i = 0; i < this.refs.length; i++) {
+            nodes[i] = Descriptor.intern(componentType(this.refs[i].getType(), this.providers[i]),
+                Descriptor.Kind.INSTANCE, this.refs[i].getQualifier());
+            indexes.put(this.refs[i], i);
+        }
+    }
+
+    private DependencyGraph(Registry registry, Map<Ref, Provider<?>> inherited) {
+        this(refs(registry, inherited), providers(registry, inherited), registry.size());
+    }
+
+    static DependencyGraph of(Registry registry) {
+        DependencyGraph graph = new DependencyGraph(registry, Map.of());
+        graph.connect(ref -> false);
+        return graph;
+    }
+
+    static DependencyGraph of(Registry registry, Map<Ref, Provider<?>> inherited, Predicate<Ref> external) {
+        DependencyGraph graph = new DependencyGraph(registry, inherited);
+        graph.connect(external);
+        return graph;
+    }
+
+    static DependencyGraph of(Registry registry, Path snapshotPath) {
+        DependencyGraph graph = new DependencyGraph(registry, Map.of());
+        byte[] fingerprint = GraphSnapshot.fingerprint(graph.refs, graph.nodes, graph.providers);
+        Optional<GraphSnapshot> snapshot = GraphSnapshot.read(snapshotPath)
+            .filter(s -> Arrays.equals(fingerprint, s.fingerprint()));
+        if (snapshot.isPresent() && graph.restore(snapshot.get())) {
+            return graph;
+        }
+        graph.connect(ref -> false);
+        graph.validate();
+        try {
+            GraphSnapshot.of(fingerprint, graph.refs, graph.edges, graph.order).write(snapshotPath);
+        } catch (UncheckedIOException | SecurityException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Failed to write graph snapshot " + snapshotPath, e);
+        }
+        return graph;
+    }
+
+    private static List<Ref> refs(Registry registry, Map<Ref, Provider<?>> inherited) {
+        List<Ref> refs = new ArrayList<>(registry.size() + inherited.size());
+        registry.forEach((ref, provider) -> refs.add(ref));
+        refs.addAll(inherited.keySet());
+        return refs;
+    }
+
+    private static List<Provider<?>> providers(Registry registry, Map<Ref, Provider<?>> inherited) {
+        List<Provider<?>> providers = new ArrayList<>(registry.size() + inherited.size());
+        registry.forEach((ref, provider) -> providers.add(provider));
+        providers.addAll(inherited.values());
+        return providers;
+    }
+
+    private void connect(Predicate<Ref> external) {
+        edges = new int[nodes.length][];
+        for (int i = 0; i < nodes.length; i++) {
+            edges[i] = targets(i, external);
+        }
+    }
+
+    private int[] targets(int node, Predicate<Ref> external) {
+        List<Descriptor> dependencies = providers[node].getDependencies();
+        int[] targets = new int[dependencies.size()];
+        int count = 0;
+        for (Descriptor dependency : dependencies) {
+            if (dependency.isCollection()) {
+                if (members == null) {
+                    members = membersByType();
+                }
+                int[] elements = members.getOrDefault(dependency.type(), NO_NODES);
+                for (int element : elements) {
+                    checkNotPooled(node, element);
+                }
+                if (count + elements.length > targets.length) {
+                    targets = Arrays.copyOf(targets, count + elements.length + dependencies.size());
+                }
+                System.arraycopy(elements, 0, targets, count, elements.length);
+                count += elements.length;
+                continue;
+            }
+            Ref ref = dependency.toRef();
+            Integer target = indexes.get(ref);
+            if (target == null && !external.test(ref)) {
+                throw new DependencyNotFoundException(nodes[node].type(), dependency.type());
+            }
+            if (target != null) {
+                checkNotPooled(node, target);
+            }
+            if (target != null && !dependency.isDeferred()) {
+                targets[count++] = target;
+            }
+        }
+        return count == targets.length ? targets : Arrays.copyOf(targets, count);
+    }
+
+    private void checkNotPooled(int node, int target) {
+        if (providers[target] instanceof PooledProvider<?>) {
+            throw new IllegalInjectionException(nodes[node].type(), "inject.pooled");
+        }
+    }
+
+    DependencyGraph rebind(Registry registry, Set<Ref> changed) {
+        DependencyGraph graph = new DependencyGraph(registry, Map.of());
+        for (int i = 0; i < refs.length; i++) {
+            if (i >= graph.refs.length || !graph.refs[i].equals(refs[i])) {
+                graph.connect(ref -> false);
+                graph.validate();
+                return graph;
+            }
+        }
+        boolean[] dirty = new boolean[graph.refs.length];
+        Map<Class<?>, int[]> collectors = reverse().collections();
+        for (int i = refs.length; i < graph.refs.length; i++) {
+            dirty[i] = true;
+            for (int collector : collectors.getOrDefault(graph.refs[i].getType(), NO_NODES)) {
+                dirty[collector] = true;
+            }
+        }
+        graph.edges = new int[graph.refs.length][];
+        int[] roots = new int[graph.refs.length];
+        int count = 0;
+        for (int i = 0; i < graph.refs.length; i++) {
+            if (dirty[i] || changed.contains(graph.refs[i])) {
+                graph.edges[i] = graph.targets(i, ref -> false);
+                roots[count++] = i;
+            } else {
+                graph.edges[i] = edges[i];
+            }
+        }
+        graph.traverse(Arrays.copyOf(roots, count));
+        return graph;
+    }
+
+    private Map<Class<?>, int[]> membersByType() {
+        Map<Class<?>, List<Integer>> nodesByType = new IdentityHashMap<>();
+        for (int i = 0; i < refs.length; i++) {
+            nodesByType.computeIfAbsent(refs[i].getType(), type -> new ArrayList<>()).add(i);
+        }
+        return toArrays(nodesByType, new IdentityHashMap<>(nodesByType.size()));
+    }
+
+    Set<Ref> dependents(Set<Ref> changed) {
+        Reverse reverse = reverse();
+        Set<Ref> result = new HashSet<>();
+        Deque<Ref> queue = new ArrayDeque<>(changed);
+        while (!queue.isEmpty()) {
+            Ref ref = queue.poll();
+            enqueue(reverse.instances().getOrDefault(ref, NO_NODES), result, queue);
+            enqueue(reverse.collections().getOrDefault(ref.getType(), NO_NODES), result, queue);
+        }
+        return result;
+    }
+
+    private void enqueue(int[] nodes, Set<Ref> result, Deque<Ref> queue) {
+        for (int node : nodes) {
+            if (result.add(refs[node])) {
+                queue.add(refs[node]);
+            }
+        }
+    }
+
+    private Reverse reverse() {
+        Reverse current = dependents;
+        if (current == null) {
+            Map<Ref, List<Integer>> nodesByDependency = new HashMap<>();
+            Map<Class<?>, List<Integer>> nodesByCollection = new IdentityHashMap<>();
+            for (int i = 0; i < providers.length; i++) {
+                for (Descriptor dependency : providers[i].getDependencies()) {
+                    (dependency.isCollection()
+                        ? nodesByCollection.computeIfAbsent(dependency.type(), type -> new ArrayList<>())
+                        : nodesByDependency.computeIfAbsent(dependency.toRef(), ref -> new ArrayList<>())).add(i);
+                }
+            }
+            current = new Reverse(toArrays(nodesByDependency, new HashMap<>(nodesByDependency.size() * 4 / 3 + 1)),
+                toArrays(nodesByCollection, new IdentityHashMap<>(nodesByCollection.size())));
+            dependents = current;
+        }
+        return current;
+    }
+
+    private static <K> Map<K, int[]> toArrays(Map<K, List<Integer>> lists, Map<K, int[]> arrays) {
+        for (Map.Entry<K, List<Integer>> entry : lists.entrySet()) {
+            arrays.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        return arrays;
+    }
+
+    private record Reverse(Map<Ref, int[]> instances, Map<Class<?>, int[]> collections) {
+    }
+
+    private boolean restore(GraphSnapshot snapshot) {
+        Map<String, Integer> keyIndexes = new HashMap<>(refs.length * 4 / 3 + 1);
+        for (int i = 0; i < refs.length; i++) {
+            keyIndexes.put(GraphSnapshot.key(refs[i]), i);
+        }
+        String[] keys = snapshot.keys();
+        if (keys.length != refs.length) {
+            return false;
+        }
+        int[] mapping = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            Integer index = keyIndexes.get(keys[i]);
+            if (index == null) {
+                return false;
+            }
+            mapping[i] = index;
+        }
+        edges = new int[refs.length][];
+        for (int i = 0; i < keys.length; i++) {
+            int[] targets = snapshot.edges()[i].clone();
+            for (int j = 0; j < targets.length; j++) {
+                targets[j] = mapping[targets[j]];
+            }
+            edges[mapping[i]] = targets;
+        }
+        order = Arrays.stream(snapshot.order()).map(node -> mapping[node]).toArray();
+        return true;
+    }
+
+    int size() {
+        return nodes.length;
+    }
+
+    int[] dependencies(int node) {
+        return edges[node];
+    }
+
+    boolean isLocal(int node) {
+        return node < local;
+    }
+
+    Provider<?> provider(int node) {
+        return providers[node];
+    }
+
+    Ref ref(int node) {
+        return refs[node];
+    }
+
+    Descriptor descriptor(int node) {
+        return nodes[node];
+    }
+
+    int[] topologicalOrder() {
+        int[] current = order;
+        if (current == null) {
+            order = current = traverse(IntStream.range(0, nodes.length).toArray());
+        }
+        return current;
+    }
+
+    void validate() {
+        order = traverse(IntStream.range(0, nodes.length).toArray());
+    }
+
+    private int[] traverse(int[] roots) {
+        int[] sorted = new int[nodes.length];
+        int count = 0;
+        int[] states = new int[nodes.length];
+        int[] path = new int[nodes.length];
+        int[] cursors = new int[nodes.length];
+        for (int root : roots) {
+            if (states[root] != UNVISITED) {
+                continue;
+            }
+            int depth = 0;
+            path[0] = root;
+            cursors[0] = 0;
+            states[root] = VISITING;
+            while (depth >= 0) {
+                int node = path[depth];
+                if (cursors[depth] == edges[node].length) {
+                    states[node] = VISITED;
+                    sorted[count++] = node;
+                    depth--;
+                    continue;
+                }
+                int next = edges[node][cursors[depth]++];
+                if (states[next] == VISITING) {
+                    throw new CyclicDependencyException(cycle(path, depth, next));
+                }
+                if (states[next] == UNVISITED) {
+                    states[next] = VISITING;
+                    path[++depth] = next;
+                    cursors[depth] = 0;
+                }
+            }
+        }
+        return count == sorted.length ? sorted : Arrays.copyOf(sorted, count);
+    }
+
+    private List<Descriptor> cycle(int[] path, int depth, int start) {
+        int from = depth;
+        while (path[from] != start) {
+            from--;
+        }
+        List<Descriptor> cycle = new ArrayList<>(depth - from + 1);
+        for (int i = from; i <= depth; i++) {
+            cycle.add(nodes[path[i]]);
+        }
+        return cycle;
+    }
+
+    static Class<?> componentType(Class<?> type, Provider<?> provider) {
+        if (provider instanceof ScopedProvider<?> scopedProvider) {
+            return componentType(type, scopedProvider.getProvider());
+        }
+        if (provider instanceof InstrumentedProvider<?> instrumentedProvider) {
+            return componentType(type, instrumentedProvider.getProvider());
+        }
+        if (provider instanceof GeneratedProvider<?> generatedProvider) {
+            return generatedProvider.getComponentType();
+        }
+        return provider instanceof ComponentProvider<?> componentProvider ? componentProvider.getComponentType() : type;
+    }
+}
@@ -5,18 +5,64 @@ import pers.lenwind.container.exception.InternalException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
 
 
-public record Descriptor(Class<?> type, boolean isProvider, Annotation qualifier) {
+public record Descriptor(Class<?> type, Kind kind, Annotation qualifier) {
+    public enum Kind {
+        INSTANCE, PROVIDER, MEMOIZED_PROVIDER, LAZY, LIST, SET
+    }
+
+    private static final ClassValue<WeakInterner<Descriptor, Descriptor>> INTERNED = new ClassValue<>() {
+        @Override
+        protected WeakInterner<Descriptor, Descriptor> computeValue(Class<?> type) {
+            return new WeakInterner<>();
+        }
+    };
+
+    public Descriptor {
+        qualifier = Qualifiers.canonical(qualifier);
+    }
+
+    static Descriptor intern(Class<?> type, Kind kind, Annotation qualifier) {
+        return INTERNED.get(type).computeIfAbsent(new Descriptor(type, kind, qualifier), Function.identity());
+    }
+
     static Descriptor of(Type type, Annotation qualifier) {
         if (type instanceof ParameterizedType parameterizedType) {
-            if (parameterizedType.getRawType() == Provider.class) {
-                return new Descriptor((Class<?>) parameterizedType.getActualTypeArguments()[0], true, qualifier);
+            Type rawType = parameterizedType.getRawType();
+            if (rawType == Provider.class || rawType == jakarta.inject.Provider.class) {
+                return intern((Class<?>) parameterizedType.getActualTypeArguments()[0], Kind.PROVIDER, qualifier);
+            }
+            if ((rawType == List.class || rawType == Set.class) && parameterizedType.getActualTypeArguments()[0] instanceof Class<?> element) {
+                return intern(element, rawType == List.class ? Kind.LIST : Kind.SET, qualifier);
             }
             throw new InternalException(String.format(Locale.ENGLISH, "Not support type: %s", type));
         }
-        return new Descriptor((Class<?>) type, false, qualifier);
+        return intern((Class<?>) type, Kind.INSTANCE, qualifier);
+    }
+
+    public boolean isProvider() {
+        return kind == Kind.PROVIDER || kind == Kind.MEMOIZED_PROVIDER;
+    }
+
+    public boolean isDeferred() {
+        return isProvider() || kind == Kind.LAZY;
+    }
+
+    public boolean isCollection() {
+        return kind == Kind.LIST || kind == Kind.SET;
+    }
+
+    Descriptor memoized() {
+        return intern(type, Kind.MEMOIZED_PROVIDER, qualifier);
+    }
+
+    Descriptor lazy() {
+        return intern(type, Kind.LAZY, qualifier);
     }
 
     Ref toRef() {
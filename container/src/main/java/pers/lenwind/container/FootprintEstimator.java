@@ -0,0 +1,149 @@
+package pers.lenwind.container;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+final class FootprintEstimator {
+    private static final int HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int ALIGNMENT = 8;
+    private static final int SHARED = -1;
+    // registry and graph table slots a binding occupies, plus its boxed graph index
+    private static final long SLOT_BYTES = 8L * REFERENCE + 16;
+
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return Layout.of(type);
+        }
+    };
+
+    private final IdentityHashMap<Object, Integer> owners = new IdentityHashMap<>();
+    private final long[] bytes;
+    private long shared;
+
+    private FootprintEstimator(int bindings) {
+        this.bytes = new long[bindings];
+    }
+
+    static MemoryFootprint estimate(Registry registry, DependencyGraph graph) {
+        FootprintEstimator estimator = new FootprintEstimator(registry.size());
+        for (int node = 0; node < registry.size(); node++) {
+            estimator.bytes[node] = SLOT_BYTES;
+            estimator.visit(node, graph.ref(node));
+            estimator.visit(node, graph.provider(node));
+            estimator.visit(node, graph.descriptor(node));
+            estimator.visit(node, graph.dependencies(node));
+        }
+        Map<Ref, Long> bindings = new LinkedHashMap<>(registry.size() * 4 / 3 + 1);
+        for (int node = 0; node < registry.size(); node++) {
+            bindings.put(graph.ref(node), estimator.bytes[node]);
+        }
+        return new MemoryFootprint(Collections.unmodifiableMap(bindings), estimator.shared);
+    }
+
+    private void visit(int binding, Object root) {
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Object current = pending.pop();
+            Integer owner = owners.get(current);
+            if (owner == null) {
+                owners.put(current, binding);
+                bytes[binding] += sizeOf(current);
+            } else if (owner != binding && owner != SHARED) {
+                owners.put(current, SHARED);
+                bytes[owner] -= sizeOf(current);
+                shared += sizeOf(current);
+            } else {
+                continue;
+            }
+            children(current, pending);
+        }
+    }
+
+    private static void children(Object object, Deque<Object> pending) {
+        if (object instanceof Object[] array) {
+            for (Object element : array) {
+                push(element, pending);
+            }
+        } else if (object instanceof Collection<?> collection) {
+            collection.forEach(element -> push(element, pending));
+        } else if (!object.getClass().isArray()) {
+            for (Field field : LAYOUTS.get(object.getClass()).references) {
+                try {
+                    push(field.get(object), pending);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    private static void push(Object value, Deque<Object> pending) {
+        if (value != null && isMetadata(value.getClass())) {
+            pending.push(value);
+        }
+    }
+
+    private static boolean isMetadata(Class<?> type) {
+        if (type.isArray()) {
+            return type == int[].class || !type.getComponentType().isPrimitive() && isMetadata(type.getComponentType());
+        }
+        return type == Object.class || type == Ref.class || type == Descriptor.class
+            || Provider.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type)
+            || type.getNestHost() == ComponentProvider.class;
+    }
+
+    private static long sizeOf(Object object) {
+        Class<?> type = object.getClass();
+        if (type.isArray()) {
+            int element = type.getComponentType().isPrimitive() ? primitiveSize(type.getComponentType()) : REFERENCE;
+            return align(ARRAY_HEADER + (long) element * Array.getLength(object));
+        }
+        if (object instanceof Collection<?> collection) {
+            return align(HEADER + REFERENCE) + align(ARRAY_HEADER + (long) REFERENCE * collection.size());
+        }
+        return LAYOUTS.get(type).size;
+    }
+
+    private static long align(long size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        return type == short.class || type == char.class ? 2 : 1;
+    }
+
+    private record Layout(long size, Field[] references) {
+        static Layout of(Class<?> type) {
+            long size = HEADER;
+            List<Field> references = new ArrayList<>();
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    if (field.getType().isPrimitive()) {
+                        size += primitiveSize(field.getType());
+                    } else {
+                        size += REFERENCE;
+                        if (field.trySetAccessible()) {
+                            references.add(field);
+                        }
+                    }
+                }
+            }
+            return new Layout(align(size), references.toArray(Field[]::new));
+        }
+    }
+}
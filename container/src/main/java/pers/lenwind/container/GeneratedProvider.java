@@ -0,0 +1,62 @@
+package pers.lenwind.container;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.Optional;
+
+public abstract class GeneratedProvider<T> implements Provider<T> {
+    public static final String SUFFIX = "_Provider";
+
+    private static final ClassValue<Optional<Constructor<?>>> GENERATED = new ClassValue<>() {
+        @Override
+        protected Optional<Constructor<?>> computeValue(Class<?> componentType) {
+            try {
+                Class<?> generated = Class.forName(componentType.getName() + SUFFIX, false, componentType.getClassLoader());
+                return GeneratedProvider.class.isAssignableFrom(generated) ? Optional.of(generated.getConstructor()) : Optional.empty();
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                return Optional.empty();
+            }
+        }
+    };
+
+    private final Class<T> componentType;
+    private final Descriptor[] dependencies;
+    private final List<Descriptor> dependencyList;
+
+    protected GeneratedProvider(Class<T> componentType, Descriptor... dependencies) {
+        this.componentType = componentType;
+        this.dependencies = dependencies;
+        this.dependencyList = List.of(dependencies);
+    }
+
+    static Optional<Provider<?>> of(Class<?> componentType) {
+        return GENERATED.get(componentType).map(constructor -> {
+            try {
+                return (Provider<?>) constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    public Class<T> getComponentType() {
+        return componentType;
+    }
+
+    @Override
+    public List<Descriptor> getDependencies() {
+        return dependencyList;
+    }
+
+    protected final Object resolve(Context context, int index) {
+        return context.resolve(dependencies[index], componentType);
+    }
+
+    protected static Descriptor instance(Class<?> type) {
+        return Descriptor.intern(type, Descriptor.Kind.INSTANCE, null);
+    }
+
+    protected static Descriptor provider(Class<?> type) {
+        return Descriptor.intern(type, Descriptor.Kind.PROVIDER, null);
+    }
+}
@@ -0,0 +1,174 @@
+package pers.lenwind.container;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+record GraphSnapshot(byte[] fingerprint, String[] keys, int[][] edges, int[] order) {
+    private static final int MAGIC = 0x44494753;
+    private static final int VERSION = 2;
+    private static final String DIRECTORY = "/";
+
+    static GraphSnapshot of(byte[] fingerprint, Ref[] refs, int[][] edges, int[] order) {
+        return new GraphSnapshot(fingerprint, Arrays.stream(refs).map(GraphSnapshot::key).toArray(String[]::new), edges, order);
+    }
+
+    static String key(Ref ref) {
+        return ref.getQualifier() == null ? ref.getType().getName() : ref.getType().getName() + " " + ref.getQualifier();
+    }
+
+    static byte[] fingerprint(Ref[] refs, Descriptor[] nodes, Provider<?>[] providers) {
+        MessageDigest digest = digest();
+        SortedMap<String, String> bindings = new TreeMap<>();
+        Set<Class<?>> classes = new HashSet<>();
+        for (int i = 0; i < refs.length; i++) {
+            bindings.put(key(refs[i]), describe(providers[i]) + " " + nodes[i].type().getName());
+            collect(refs[i].getType(), classes);
+            collect(nodes[i].type(), classes);
+            collect(providers[i].getClass(), classes);
+        }
+        bindings.forEach((key, binding) -> {
+            digest.update(key.getBytes(StandardCharsets.UTF_8));
+            digest.update(binding.getBytes(StandardCharsets.UTF_8));
+        });
+        Map<Path, String> locations = new HashMap<>();
+        classes.stream().sorted(Comparator.comparing(Class::getName)).forEach(type -> {
+            digest.update(type.getName().getBytes(StandardCharsets.UTF_8));
+            digest.update(stamp(type, locations).getBytes(StandardCharsets.UTF_8));
+        });
+        return digest.digest();
+    }
+
+    static Optional<GraphSnapshot> read(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return Optional.empty();
+            }
+            byte[] fingerprint = new byte[buffer.getInt()];
+            buffer.get(fingerprint);
+            int size = buffer.getInt();
+            String[] keys = new String[size];
+            int[][] edges = new int[size][];
+            for (int i = 0; i < size; i++) {
+                byte[] key = new byte[buffer.getInt()];
+                buffer.get(key);
+                keys[i] = new String(key, StandardCharsets.UTF_8);
+                edges[i] = readInts(buffer, size);
+            }
+            int[] order = readInts(buffer, size);
+            return order.length == size ? Optional.of(new GraphSnapshot(fingerprint, keys, edges, order)) : Optional.empty();
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            return Optional.empty();
+        }
+    }
+
+    void write(Path path) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(fingerprint.length);
+            output.write(fingerprint);
+            output.writeInt(keys.length);
+            for (int i = 0; i < keys.length; i++) {
+                byte[] key = keys[i].getBytes(StandardCharsets.UTF_8);
+                output.writeInt(key.length);
+                output.write(key);
+                writeInts(output, edges[i]);
+            }
+            writeInts(output, order);
+            Path temporary = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+            Files.write(temporary, bytes.toByteArray());
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int bound) {
+        int[] values = new int[buffer.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buffer.getInt();
+            if (values[i] < 0 || values[i] >= bound) {
+                throw new IllegalArgumentException("node out of range: " + values[i]);
+            }
+        }
+        return values;
+    }
+
+    private static void writeInts(DataOutputStream output, int[] values) throws IOException {
+        output.writeInt(values.length);
+        for (int value : values) {
+            output.writeInt(value);
+        }
+    }
+
+    private static String describe(Provider<?> provider) {
+        String name = provider.getClass().isHidden() ? "instance" : provider.getClass().getName();
+        if (provider instanceof ScopedProvider<?> scopedProvider) {
+            return name + ">" + describe(scopedProvider.getProvider());
+        }
+        return provider instanceof InstrumentedProvider<?> instrumentedProvider
+            ? name + ">" + describe(instrumentedProvider.getProvider())
+            : name;
+    }
+
+    private static void collect(Class<?> type, Set<Class<?>> classes) {
+        for (Class<?> current = type; current != null && current != Object.class && !current.isHidden(); current = current.getSuperclass()) {
+            if (!classes.add(current)) {
+                return;
+            }
+        }
+    }
+
+    private static String stamp(Class<?> type, Map<Path, String> locations) {
+        CodeSource source = type.getProtectionDomain().getCodeSource();
+        if (source == null || source.getLocation() == null) {
+            return "";
+        }
+        try {
+            Path location = Path.of(source.getLocation().toURI());
+            String stamp = locations.computeIfAbsent(location, path -> Files.isDirectory(path) ? DIRECTORY : stamp(path));
+            return stamp.equals(DIRECTORY) ? stamp(location.resolve(type.getName().replace('.', '/') + ".class")) : stamp;
+        } catch (URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+            return "";
+        }
+    }
+
+    private static String stamp(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package pers.lenwind.container;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class Instrumentation {
+    private final Map<Ref, Recorder> recorders = new ConcurrentHashMap<>();
+
+    Instrumentation() {
+    }
+
+    <T> Provider<T> instrument(List<Ref> refs, Provider<T> provider) {
+        return new InstrumentedProvider<>(provider,
+            refs.stream().map(ref -> recorders.computeIfAbsent(ref, Recorder::new)).toArray(Recorder[]::new));
+    }
+
+    public Map<Ref, ComponentMetrics> snapshot() {
+        Map<Ref, ComponentMetrics> snapshot = new HashMap<>(recorders.size() * 4 / 3 + 1);
+        recorders.forEach((ref, recorder) -> snapshot.put(ref, recorder.snapshot()));
+        return Map.copyOf(snapshot);
+    }
+
+    static final class Recorder {
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final String binding;
+        private final LongAdder instances = new LongAdder();
+        private final LongAdder constructionNanos = new LongAdder();
+        private final LongAdder resolutionNanos = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray((Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS);
+
+        private Recorder(Ref ref) {
+            this.binding = GraphSnapshot.key(ref);
+        }
+
+        void record(long construction, long resolution) {
+            instances.increment();
+            constructionNanos.add(construction);
+            resolutionNanos.add(resolution);
+            histogram.incrementAndGet(bucket(Math.max(construction, 0)));
+        }
+
+        String binding() {
+            return binding;
+        }
+
+        /**
+         * Values below {@code SUB_BUCKETS} get a bucket each; above that every power of two is split into
+         * {@code SUB_BUCKETS} linear sub-buckets, so a bucket's upper bound is within 1/16 of any value in it.
+         */
+        static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        }
+
+        static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = bucket / SUB_BUCKETS - 1;
+            return ((long) (bucket % SUB_BUCKETS + SUB_BUCKETS + 1) << shift) - 1;
+        }
+
+        private ComponentMetrics snapshot() {
+            long[] buckets = new long[histogram.length()];
+            long count = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                count += buckets[i] = histogram.get(i);
+            }
+            return new ComponentMetrics(instances.sum(), constructionNanos.sum(), resolutionNanos.sum(),
+                percentile(buckets, count, 0.5), percentile(buckets, count, 0.9), percentile(buckets, count, 0.99));
+        }
+
+        private static long percentile(long[] buckets, long count, double percentile) {
+            long rank = (long) Math.ceil(count * percentile);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank && seen > 0) {
+                    return upperBound(i);
+                }
+            }
+            return 0;
+        }
+    }
+}
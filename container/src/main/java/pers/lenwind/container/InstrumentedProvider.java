@@ -0,0 +1,74 @@
+package pers.lenwind.container;
+
+import jdk.jfr.EventType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+
+class InstrumentedProvider<T> implements Provider<T> {
+    private static final EventType CREATED = EventType.getEventType(ComponentCreatedEvent.class);
+
+    private final Provider<T> provider;
+
+    private final Instrumentation.Recorder[] recorders;
+
+    private final String binding;
+
+    InstrumentedProvider(Provider<T> provider, Instrumentation.Recorder[] recorders) {
+        this.provider = provider;
+        this.recorders = recorders;
+        this.binding = Arrays.stream(recorders).map(Instrumentation.Recorder::binding).collect(Collectors.joining(", "));
+    }
+
+    Provider<T> getProvider() {
+        return provider;
+    }
+
+    @Override
+    public T get(Context context) {
+        ComponentCreatedEvent event = CREATED.isEnabled() ? new ComponentCreatedEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        Resolution resolution = new Resolution();
+        long start = System.nanoTime();
+        T instance = provider instanceof ComponentProvider<T> componentProvider
+            ? componentProvider.get(context, resolution)
+            : provider.get(context);
+        long construction = System.nanoTime() - start - resolution.nanos;
+        for (Instrumentation.Recorder recorder : recorders) {
+            recorder.record(construction, resolution.nanos);
+        }
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.binding = binding;
+                event.componentType = DependencyGraph.componentType(Object.class, provider);
+                event.resolution = resolution.nanos;
+                event.commit();
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public List<Descriptor> getDependencies() {
+        return provider.getDependencies();
+    }
+
+    @Override
+    public void destroy(T instance) {
+        provider.destroy(instance);
+    }
+
+    private static final class Resolution implements LongConsumer {
+        private long nanos;
+
+        @Override
+        public void accept(long nanos) {
+            this.nanos = nanos;
+        }
+    }
+}
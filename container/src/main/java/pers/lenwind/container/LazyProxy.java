@@ -0,0 +1,56 @@
+package pers.lenwind.container;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+class LazyProxy<T> implements InvocationHandler {
+    private static final ClassValue<Map<Method, MethodHandle>> HANDLES = new ClassValue<>() {
+        @Override
+        protected Map<Method, MethodHandle> computeValue(Class<?> type) {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            return Arrays.stream(type.getDeclaredMethods())
+                .filter(method -> Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers()))
+                .collect(Collectors.toUnmodifiableMap(method -> method, method -> unreflect(lookup, method)));
+        }
+    };
+
+    private final MemoizingProvider<T> target;
+
+    private LazyProxy(Context context, Provider<T> provider) {
+        this.target = new MemoizingProvider<>(context, provider);
+    }
+
+    static Object of(Context context, Class<?> type, Provider<?> provider) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new LazyProxy<>(context, provider));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class && method.getName().equals("equals")) {
+            return proxy == args[0];
+        }
+        if (method.getDeclaringClass() == Object.class && method.getName().equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        }
+        return HANDLES.get(method.getDeclaringClass()).get(method).invokeExact(target.get(), args);
+    }
+
+    private static MethodHandle unreflect(MethodHandles.Lookup lookup, Method method) {
+        try {
+            method.trySetAccessible();
+            return lookup.unreflect(method)
+                .asSpreader(Object[].class, method.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
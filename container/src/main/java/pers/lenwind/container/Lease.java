@@ -0,0 +1,28 @@
+package pers.lenwind.container;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class Lease<T> implements AutoCloseable {
+    private final T instance;
+    private final PooledProvider<T> pool;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    Lease(T instance, PooledProvider<T> pool) {
+        this.instance = instance;
+        this.pool = pool;
+    }
+
+    public T get() {
+        if (closed.get()) {
+            throw new IllegalStateException("lease already closed");
+        }
+        return instance;
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true) && pool != null) {
+            pool.release(instance);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package pers.lenwind.container;
+
+class MemoizingProvider<T> extends BoundProvider<T> {
+    private volatile T instance;
+
+    MemoizingProvider(Context context, Provider<T> provider) {
+        super(context, provider);
+    }
+
+    @Override
+    public T get() {
+        T result = instance;
+        if (result == null) {
+            synchronized (this) {
+                result = instance;
+                if (result == null) {
+                    instance = result = super.get();
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public T get(Context context) {
+        return get();
+    }
+}
@@ -0,0 +1,9 @@
+package pers.lenwind.container;
+
+import java.util.Map;
+
+public record MemoryFootprint(Map<Ref, Long> bindings, long shared) {
+    public long total() {
+        return bindings.values().stream().mapToLong(Long::longValue).sum() + shared;
+    }
+}
@@ -0,0 +1,4 @@
+package pers.lenwind.container;
+
+public record PoolStats(long hits, long misses, long released, long discarded, int idle) {
+}
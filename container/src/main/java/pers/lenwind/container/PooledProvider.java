@@ -0,0 +1,104 @@
+package pers.lenwind.container;
+
+import pers.lenwind.container.exception.UnsupportedBindException;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class PooledProvider<T> extends ScopedProvider<T> {
+    static final int DEFAULT_CAPACITY = 8;
+
+    private final AtomicReferenceArray<T> slots;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private volatile boolean closed;
+
+    public PooledProvider(Provider<T> provider, int capacity) {
+        super(provider);
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Pooled instances must be returned, so they are only handed out through {@link #lease(Context)}.
+     */
+    @Override
+    public T get(Context context) {
+        throw new UnsupportedBindException(DependencyGraph.componentType(Object.class, provider), "pool.lease.required");
+    }
+
+    public Lease<T> lease(Context context) {
+        return new Lease<>(acquire(context), this);
+    }
+
+    private T acquire(Context context) {
+        int start = probe();
+        for (int i = 0; i < slots.length(); i++) {
+            int slot = (start + i) % slots.length();
+            if (slots.getPlain(slot) != null) {
+                T instance = slots.getAndSet(slot, null);
+                if (instance != null) {
+                    hits.increment();
+                    return instance;
+                }
+            }
+        }
+        misses.increment();
+        return provider.get(context);
+    }
+
+    void release(T instance) {
+        if (closed) {
+            provider.destroy(instance);
+            return;
+        }
+        int start = probe();
+        for (int i = 0; i < slots.length(); i++) {
+            int slot = (start + i) % slots.length();
+            if (slots.getPlain(slot) == null && slots.compareAndSet(slot, null, instance)) {
+                released.increment();
+                if (closed && slots.compareAndSet(slot, instance, null)) {
+                    provider.destroy(instance);
+                }
+                return;
+            }
+        }
+        discarded.increment();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (int i = 0; i < slots.length(); i++) {
+            T instance = slots.getAndSet(i, null);
+            if (instance != null) {
+                provider.destroy(instance);
+            }
+        }
+    }
+
+    public PoolStats stats() {
+        int idle = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                idle++;
+            }
+        }
+        return new PoolStats(hits.sum(), misses.sum(), released.sum(), discarded.sum(), idle);
+    }
+
+    private int probe() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & Integer.MAX_VALUE;
+    }
+
+    @Override
+    protected ScopedProvider<T> renew() {
+        return new PooledProvider<>(provider, slots.length());
+    }
+}
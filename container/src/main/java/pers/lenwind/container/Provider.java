@@ -1,5 +1,14 @@
 package pers.lenwind.container;
 
+import java.util.List;
+
 public interface Provider<T> {
     T get(Context context);
+
+    default List<Descriptor> getDependencies() {
+        return List.of();
+    }
+
+    default void destroy(T instance) {
+    }
 }
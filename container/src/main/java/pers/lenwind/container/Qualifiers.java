@@ -0,0 +1,22 @@
+package pers.lenwind.container;
+
+import java.lang.annotation.Annotation;
+import java.util.function.Function;
+
+final class Qualifiers {
+    private static final WeakInterner<Annotation, Annotation> CANONICAL = new WeakInterner<>();
+
+    private Qualifiers() {
+    }
+
+    static Annotation canonical(Annotation qualifier) {
+        if (qualifier == null) {
+            return null;
+        }
+        return CANONICAL.computeIfAbsent(qualifier, Function.identity());
+    }
+
+    static Annotation find(Annotation qualifier) {
+        return CANONICAL.get(qualifier);
+    }
+}
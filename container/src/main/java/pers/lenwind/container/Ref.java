@@ -1,24 +1,42 @@
 package pers.lenwind.container;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 import java.lang.annotation.Annotation;
 
-@Builder
-@EqualsAndHashCode
+@Builder(access = AccessLevel.PRIVATE)
+@EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
 @Getter
 public class Ref {
+    private static final ClassValue<Interned> INTERNED = new ClassValue<>() {
+        @Override
+        protected Interned computeValue(Class<?> type) {
+            return new Interned(builder().type(type).build());
+        }
+    };
+
     public static Ref of(Class<?> componentType) {
-        return builder().type(componentType).build();
+        return INTERNED.get(componentType).unqualified;
     }
 
     public static Ref of(Class<?> componentType, Annotation qualifier) {
-        return builder().type(componentType).qualifier(qualifier).build();
+        if (qualifier == null) {
+            return of(componentType);
+        }
+        return INTERNED.get(componentType).qualified.computeIfAbsent(Qualifiers.canonical(qualifier),
+            key -> builder().type(componentType).qualifier(key).build());
     }
 
     private Class<?> type;
 
     private Annotation qualifier;
+
+    private record Interned(Ref unqualified, WeakInterner<Annotation, Ref> qualified) {
+        private Interned(Ref unqualified) {
+            this(unqualified, new WeakInterner<>());
+        }
+    }
 }
@@ -0,0 +1,58 @@
+package pers.lenwind.container;
+
+import java.lang.annotation.Annotation;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+final class Registry {
+    private final Ref[] refs;
+    private final Provider<?>[] providers;
+
+    private final IdentityHashMap<Class<?>, Provider<?>> unqualified;
+    private final IdentityHashMap<Class<?>, Map<Annotation, Provider<?>>> qualified;
+
+    Registry(Map<Ref, Provider<?>> bindings) {
+        refs = new Ref[bindings.size()];
+        providers = new Provider<?>[bindings.size()];
+        unqualified = new IdentityHashMap<>(bindings.size());
+        qualified = new IdentityHashMap<>();
+        int index = 0;
+        for (Map.Entry<Ref, Provider<?>> binding : bindings.entrySet()) {
+            Ref ref = binding.getKey();
+            refs[index] = ref;
+            providers[index++] = binding.getValue();
+            if (ref.getQualifier() == null) {
+                unqualified.put(ref.getType(), binding.getValue());
+            } else {
+                qualified.computeIfAbsent(ref.getType(), type -> new IdentityHashMap<>()).put(ref.getQualifier(), binding.getValue());
+            }
+        }
+    }
+
+    Provider<?> get(Class<?> type, Annotation qualifier) {
+        if (qualifier == null) {
+            return unqualified.get(type);
+        }
+        Map<Annotation, Provider<?>> providers = qualified.get(type);
+        if (providers == null) {
+            return null;
+        }
+        Provider<?> provider = providers.get(qualifier);
+        if (provider == null) {
+            Annotation canonical = Qualifiers.find(qualifier);
+            return canonical == null ? null : providers.get(canonical);
+        }
+        return provider;
+    }
+
+    int size() {
+        return refs.length;
+    }
+
+    void forEach(BiConsumer<Ref, Provider<?>> consumer) {
+        for (int i = 0; i < refs.length; i++) {
+            consumer.accept(refs[i], providers[i]);
+        }
+    }
+}
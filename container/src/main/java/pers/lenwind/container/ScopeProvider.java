@@ -0,0 +1,11 @@
+package pers.lenwind.container;
+
+import java.lang.annotation.Annotation;
+
+public interface ScopeProvider {
+    Provider<?> create(Provider<?> provider);
+
+    default Provider<?> create(Provider<?> provider, Annotation scope) {
+        return create(provider);
+    }
+}
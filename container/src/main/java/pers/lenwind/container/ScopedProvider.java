@@ -0,0 +1,39 @@
+package pers.lenwind.container;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public abstract class ScopedProvider<T> implements Provider<T> {
+    protected final Provider<T> provider;
+
+    private Supplier<? extends Provider<T>> renewal;
+
+    protected ScopedProvider(Provider<T> provider) {
+        this.provider = provider;
+    }
+
+    public Provider<T> getProvider() {
+        return provider;
+    }
+
+    @Override
+    public List<Descriptor> getDependencies() {
+        return provider.getDependencies();
+    }
+
+    @Override
+    public void destroy(T instance) {
+        provider.destroy(instance);
+    }
+
+    public void close() {
+    }
+
+    protected Provider<T> renew() {
+        return renewal == null ? this : renewal.get();
+    }
+
+    void renewWith(Supplier<? extends Provider<T>> renewal) {
+        this.renewal = renewal;
+    }
+}
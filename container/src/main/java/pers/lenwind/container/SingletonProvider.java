@@ -0,0 +1,87 @@
+package pers.lenwind.container;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+public class SingletonProvider<T> extends ScopedProvider<T> implements AsyncProvider<T> {
+    private volatile T instance;
+
+    private CompletableFuture<T> pending;
+
+    public SingletonProvider(Provider<T> provider) {
+        super(provider);
+    }
+
+    @Override
+    public T get(Context context) {
+        T result = instance;
+        if (result != null) {
+            return result;
+        }
+        CompletableFuture<T> inFlight;
+        synchronized (this) {
+            result = instance;
+            if (result != null) {
+                return result;
+            }
+            inFlight = pending;
+            if (inFlight == null) {
+                instance = result = provider.get(context);
+                return result;
+            }
+        }
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<T> getAsync(Context context, Executor executor) {
+        T result = instance;
+        if (result != null) {
+            return CompletableFuture.completedFuture(result);
+        }
+        synchronized (this) {
+            if (instance != null) {
+                return CompletableFuture.completedFuture(instance);
+            }
+            if (pending != null) {
+                return pending;
+            }
+            CompletableFuture<T> created = (CompletableFuture<T>) context.construct(provider, executor);
+            pending = created;
+            created.whenComplete((value, failure) -> {
+                synchronized (this) {
+                    if (failure == null) {
+                        instance = value;
+                    }
+                    pending = null;
+                }
+            });
+            return created;
+        }
+    }
+
+    @Override
+    public void close() {
+        T destroyed;
+        synchronized (this) {
+            destroyed = instance;
+            instance = null;
+        }
+        if (destroyed != null) {
+            provider.destroy(destroyed);
+        }
+    }
+
+    @Override
+    protected ScopedProvider<T> renew() {
+        return new SingletonProvider<>(provider);
+    }
+}
@@ -0,0 +1,29 @@
+package pers.lenwind.container;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Interning table that holds neither its keys nor its values strongly, so interned qualifiers and the class
+ * loaders behind them can be collected once nothing else uses them. Values must reference their key to keep
+ * the entry alive while the value is in use.
+ */
+final class WeakInterner<K, V> {
+    private final Map<K, WeakReference<V>> table = new WeakHashMap<>();
+
+    synchronized V get(K key) {
+        WeakReference<V> reference = table.get(key);
+        return reference == null ? null : reference.get();
+    }
+
+    synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> factory) {
+        V value = get(key);
+        if (value == null) {
+            value = factory.apply(key);
+            table.put(key, new WeakReference<>(value));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,20 @@
+package pers.lenwind.container.exception;
+
+import lombok.ToString;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+@ToString(callSuper = true)
+public class DuplicateBindingException extends BaseException {
+    private final Annotation qualifier;
+
+    public DuplicateBindingException(Type instanceType, Annotation qualifier) {
+        super(instanceType, "bind.duplicate");
+        this.qualifier = qualifier;
+    }
+
+    public Annotation getQualifier() {
+        return qualifier;
+    }
+}
@@ -6,4 +6,8 @@ public class UnsupportedBindException extends BaseException{
     public UnsupportedBindException(Type instanceType) {
         super(instanceType);
     }
+
+    public UnsupportedBindException(Type instanceType, String key) {
+        super(instanceType, key);
+    }
 }
@@ -9,4 +9,25 @@ public class AnnotationContainer {
     public static Annotation getNamed() {
         return AnnotationContainer.class.getAnnotation(Named.class);
     }
+
+    public static Named named(String value) {
+        return new NamedLiteral(value);
+    }
+
+    record NamedLiteral(String value) implements Named {
+        @Override
+        public Class<? extends Annotation> annotationType() {
+            return Named.class;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Named named && value.equals(named.value());
+        }
+
+        @Override
+        public int hashCode() {
+            return (127 * "value".hashCode()) ^ value.hashCode();
+        }
+    }
 }
@@ -5,13 +5,33 @@ import jakarta.inject.Named;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import pers.lenwind.container.exception.CyclicDependencyException;
+import pers.lenwind.container.hidden.HiddenGreeting;
 import pers.lenwind.container.exception.DependencyNotFoundException;
+import pers.lenwind.container.exception.DuplicateBindingException;
+import pers.lenwind.container.exception.IllegalInjectionException;
+import pers.lenwind.container.exception.MultiInjectException;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
-import java.util.Optional;
-import java.util.Set;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -76,6 +96,75 @@ public class ContextTest {
             assertTrue(component.isEmpty());
         }
 
+        @Test
+        void should_bind_all_bindings_in_batch() {
+            Instance instance = new Instance();
+            contextConfiguration.bindAll(List.of(
+                Binding.component(Component.class, Instance.class),
+                Binding.component(Component.class, Instance.class, AnnotationContainer.named("component")),
+                Binding.instance(Component.class, instance, AnnotationContainer.named("instance"))));
+
+            Context context = contextConfiguration.toContext();
+            assertTrue(context.getInstance(Component.class).get() instanceof Instance);
+            assertNotSame(instance, context.getInstance(Component.class, AnnotationContainer.named("component")).get());
+            assertSame(instance, context.getInstance(Component.class, AnnotationContainer.named("instance")).get());
+        }
+
+        @Test
+        void should_merge_module_configurations_built_in_parallel() {
+            List<ContextConfiguration> modules = IntStream.range(0, 8).parallel().mapToObj(module -> {
+                ContextConfiguration configuration = new ContextConfiguration();
+                configuration.bindAll(IntStream.range(0, 100)
+                    .mapToObj(i -> Binding.component(Component.class, Instance.class, AnnotationContainer.named(module + "-" + i)))
+                    .toList());
+                return configuration;
+            }).toList();
+
+            contextConfiguration.merge(modules.toArray(ContextConfiguration[]::new));
+
+            Context context = contextConfiguration.toContext();
+            assertTrue(context.getInstance(Component.class, AnnotationContainer.named("7-99")).isPresent());
+        }
+
+        @Test
+        void should_not_share_singletons_between_configurations_merging_same_module() {
+            ContextConfiguration module = new ContextConfiguration();
+            module.bind(Component.class, ChildContext.SingletonComponent.class);
+            module.bind(Dependency.class, ChildContext.DependencyImpl.class);
+            ContextConfiguration tenant = new ContextConfiguration();
+            tenant.merge(module);
+            contextConfiguration.merge(module);
+
+            Context context = contextConfiguration.toContext();
+            Component component = context.getInstance(Component.class).get();
+            assertNotSame(component, tenant.toContext().getInstance(Component.class).get());
+            assertSame(component, context.getInstance(Component.class).get());
+        }
+
+        @Test
+        void should_throw_exception_if_merged_modules_bind_same_ref() {
+            Instance instance = new Instance();
+            ContextConfiguration module = new ContextConfiguration();
+            module.bind(Component.class, Instance.class, AnnotationContainer.named("duplicate"));
+            module.bind(Dependency.class, DependencyCheck.DependencyWithComponentProvider.class);
+            contextConfiguration.component(Component.class, instance, AnnotationContainer.named("duplicate"));
+
+            DuplicateBindingException exception = assertThrows(DuplicateBindingException.class, () -> contextConfiguration.merge(module));
+            assertEquals(Component.class, exception.getInstanceType());
+            assertEquals(AnnotationContainer.named("duplicate"), exception.getQualifier());
+            assertTrue(contextConfiguration.toContext().getInstance(Dependency.class).isEmpty());
+        }
+
+        @Test
+        void should_throw_exception_if_modules_bind_same_ref() {
+            ContextConfiguration first = new ContextConfiguration();
+            first.bind(Component.class, Instance.class);
+            ContextConfiguration second = new ContextConfiguration();
+            second.bind(Component.class, Instance.class);
+
+            assertThrows(DuplicateBindingException.class, () -> contextConfiguration.merge(first, second));
+        }
+
         @Test
         void should_return_provider_type_if_want() {
             contextConfiguration.bind(Component.class, Instance.class);
@@ -85,6 +174,148 @@ public class ContextTest {
         }
     }
 
+    @Nested
+    class Lookup {
+        @Test
+        void should_not_affect_built_context_if_bind_after_to_context() {
+            Context context = contextConfiguration.toContext();
+            contextConfiguration.bind(Component.class, ComponentBind.Instance.class);
+
+            assertTrue(context.getInstance(Component.class).isEmpty());
+        }
+
+        @Test
+        void should_resolve_consistently_from_many_threads_while_configuration_changes() throws Exception {
+            contextConfiguration.bind(Component.class, ChildContext.SingletonComponent.class);
+            contextConfiguration.bind(Dependency.class, ChildContext.DependencyImpl.class);
+            contextConfiguration.bind(Dependency.class, ChildContext.AnotherDependencyImpl.class, AnnotationContainer.named("another"));
+            Context context = contextConfiguration.toContext();
+            int threads = 16;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CyclicBarrier barrier = new CyclicBarrier(threads + 1);
+            try {
+                List<Future<Component>> futures = IntStream.range(0, threads)
+                    .mapToObj(i -> executor.submit(() -> {
+                        barrier.await();
+                        Component component = context.getInstance(Component.class).get();
+                        for (int j = 0; j < 10_000; j++) {
+                            assertSame(component, context.getInstance(Component.class).get());
+                            assertInstanceOf(ChildContext.DependencyImpl.class, context.getInstance(Dependency.class).get());
+                            assertInstanceOf(ChildContext.AnotherDependencyImpl.class,
+                                context.getInstance(Dependency.class, AnnotationContainer.named("another")).get());
+                            assertTrue(context.getInstance(DependencyCheck.DependencyWithComponentProvider.class).isEmpty());
+                        }
+                        return component;
+                    })).toList();
+                barrier.await();
+                for (int i = 0; i < 1_000; i++) {
+                    contextConfiguration.bind(Dependency.class, ChildContext.AnotherDependencyImpl.class);
+                    contextConfiguration.bind(DependencyCheck.DependencyWithComponentProvider.class, DependencyCheck.DependencyWithComponentProvider.class);
+                }
+                Component first = futures.get(0).get();
+                for (Future<Component> future : futures) {
+                    assertSame(first, future.get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        @Test
+        void should_resolve_dependency_without_allocation() {
+            Component instance = new Component() {
+            };
+            contextConfiguration.component(Component.class, instance);
+            contextConfiguration.component(Dependency.class, new Dependency() {
+            }, AnnotationContainer.getNamed());
+            Context context = contextConfiguration.toContext();
+            Descriptor unqualified = Descriptor.of(Component.class, null);
+            Descriptor qualified = Descriptor.of(Dependency.class, AnnotationContainer.getNamed());
+            com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long threadId = Thread.currentThread().getId();
+            for (int i = 0; i < 20_000; i++) {
+                context.resolve(unqualified);
+            }
+
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            boolean same = true;
+            for (int i = 0; i < 200_000; i++) {
+                same &= context.resolve(unqualified) == instance;
+            }
+            long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+            assertTrue(same);
+            assertTrue(allocated < 64 * 1024, () -> "allocated " + allocated + " bytes");
+            assertNotNull(context.resolve(qualified));
+        }
+
+        @Test
+        void should_resolve_qualified_binding_without_comparing_annotations() {
+            CountingNamed qualifier = new CountingNamed("counting-lookup");
+            Component instance = new Component() {
+            };
+            contextConfiguration.component(Component.class, instance, qualifier);
+            Context context = contextConfiguration.toContext();
+
+            qualifier.comparisons.set(0);
+            for (int i = 0; i < 100; i++) {
+                assertSame(instance, context.getInstance(Component.class, qualifier).get());
+            }
+            assertEquals(0, qualifier.comparisons.get());
+        }
+
+        @Test
+        void should_resolve_qualified_binding_by_equal_qualifier() {
+            Component instance = new Component() {
+            };
+            contextConfiguration.component(Component.class, instance, AnnotationContainer.named("equal-lookup"));
+            Context context = contextConfiguration.toContext();
+
+            assertSame(instance, context.getInstance(Component.class, AnnotationContainer.named("equal-lookup")).get());
+            assertTrue(context.getInstance(Component.class, AnnotationContainer.named("other-lookup")).isEmpty());
+        }
+
+        @Test
+        void should_share_canonical_qualifier_between_refs_and_descriptors() {
+            Annotation qualifier = AnnotationContainer.named("canonical");
+            Ref ref = Ref.of(Component.class, AnnotationContainer.named("canonical"));
+            Descriptor descriptor = new Descriptor(Component.class, Descriptor.Kind.INSTANCE, qualifier);
+
+            assertSame(ref.getQualifier(), descriptor.qualifier());
+            assertEquals(ref, descriptor.toRef());
+        }
+
+        static class CountingNamed implements Named {
+            final AtomicInteger comparisons = new AtomicInteger();
+            private final String value;
+
+            CountingNamed(String value) {
+                this.value = value;
+            }
+
+            @Override
+            public String value() {
+                return value;
+            }
+
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return Named.class;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                comparisons.incrementAndGet();
+                return o instanceof Named named && value.equals(named.value());
+            }
+
+            @Override
+            public int hashCode() {
+                comparisons.incrementAndGet();
+                return (127 * "value".hashCode()) ^ value.hashCode();
+            }
+        }
+    }
+
     @Nested
     class DependencyCheck {
         @ParameterizedTest(name = "Not found {0}")
@@ -124,6 +355,892 @@ public class ContextTest {
             private Provider<Component> componentProvider;
         }
 
+        @Test
+        void should_defer_component_analysis_until_context_built() {
+            assertDoesNotThrow(() -> contextConfiguration.bind(Component.class, InjectionTest.MultiInjectConstruction.class));
+
+            assertThrows(MultiInjectException.class, () -> contextConfiguration.toContext());
+        }
+
+        @Test
+        void should_report_only_components_in_cycle() {
+            contextConfiguration.bind(Component.class, ComponentTypeProvider.ConstructionDependency.class);
+            contextConfiguration.bind(Dependency.class, DependencyWithAnotherDependency.class);
+            contextConfiguration.bind(AnotherDependency.class, AnotherDependencyWithDependency.class);
+
+            CyclicDependencyException exception = assertThrows(CyclicDependencyException.class, () -> contextConfiguration.toContext());
+            assertEquals(Set.of(DependencyWithAnotherDependency.class, AnotherDependencyWithDependency.class),
+                Set.copyOf(exception.getDependencies()));
+        }
+
+        static class AnotherDependencyWithDependency implements AnotherDependency {
+            @Inject
+            Dependency dependency;
+        }
+
+        @Test
+        void should_validate_large_graph_with_shared_dependencies() {
+            int size = 50_000;
+            Map<Ref, Provider<?>> bindings = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                bindings.put(Ref.of(Object.class, AnnotationContainer.named(String.valueOf(i))),
+                    new NodeProvider(IntStream.of(i + 1, i + 2).filter(n -> n < size).toArray()));
+            }
+
+            assertDoesNotThrow(() -> new Context(bindings));
+        }
+
+        @Test
+        void should_report_full_cycle_path_in_large_graph() {
+            int size = 50_000;
+            Map<Ref, Provider<?>> bindings = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                bindings.put(Ref.of(Object.class, AnnotationContainer.named(String.valueOf(i))),
+                    new NodeProvider(i == size - 1 ? new int[]{size / 2} : new int[]{i + 1}));
+            }
+
+            CyclicDependencyException exception = assertThrows(CyclicDependencyException.class, () -> new Context(bindings));
+            assertEquals(size / 2, exception.getDescriptors().size());
+        }
+
+        record NodeProvider(int[] dependencies) implements Provider<Object> {
+            @Override
+            public Object get(Context context) {
+                return new Object();
+            }
+
+            @Override
+            public List<Descriptor> getDependencies() {
+                return Arrays.stream(dependencies)
+                    .mapToObj(n -> Descriptor.of(Object.class, AnnotationContainer.named(String.valueOf(n))))
+                    .toList();
+            }
+        }
+
+    }
+
+    @Nested
+    class ProviderInjection {
+        @Test
+        void should_inject_provider_bound_to_context() {
+            contextConfiguration.bind(Dependency.class, CountingDependency.class);
+            contextConfiguration.bind(Component.class, JakartaProviderComponent.class);
+            Context context = contextConfiguration.toContext();
+
+            JakartaProviderComponent component = (JakartaProviderComponent) context.getInstance(Component.class).get();
+            assertNotSame(component.provider.get(), component.provider.get());
+        }
+
+        @Test
+        void should_reuse_provider_handle_between_injections() {
+            contextConfiguration.bind(Dependency.class, CountingDependency.class);
+            contextConfiguration.bind(Component.class, JakartaProviderComponent.class);
+            Context context = contextConfiguration.toContext();
+
+            JakartaProviderComponent first = (JakartaProviderComponent) context.getInstance(Component.class).get();
+            JakartaProviderComponent second = (JakartaProviderComponent) context.getInstance(Component.class).get();
+            assertSame(first.provider, second.provider);
+        }
+
+        @Test
+        void should_inject_container_provider_usable_without_context() {
+            contextConfiguration.bind(Dependency.class, CountingDependency.class);
+            contextConfiguration.bind(Component.class, ComponentTypeProvider.FieldDependencyProvider.class);
+            Context context = contextConfiguration.toContext();
+
+            Provider<Dependency> provider = context.getInstance(Component.class).get().getDependencyProvider();
+            assertInstanceOf(CountingDependency.class, ((jakarta.inject.Provider<?>) provider).get());
+        }
+
+        @Test
+        void should_create_memoized_dependency_once_on_first_use() {
+            CountingDependency.count.set(0);
+            contextConfiguration.bind(Dependency.class, CountingDependency.class);
+            contextConfiguration.bind(Component.class, MemoizedProviderComponent.class);
+            Context context = contextConfiguration.toContext();
+
+            MemoizedProviderComponent component = (MemoizedProviderComponent) context.getInstance(Component.class).get();
+            assertEquals(0, CountingDependency.count.get());
+            assertSame(component.provider.get(), component.provider.get());
+            assertEquals(1, CountingDependency.count.get());
+        }
+
+        @Test
+        void should_throw_exception_if_memoized_injection_not_provider() {
+            contextConfiguration.bind(Dependency.class, CountingDependency.class);
+            contextConfiguration.bind(Component.class, MemoizedInstanceComponent.class);
+
+            IllegalInjectionException exception = assertThrows(IllegalInjectionException.class, () -> contextConfiguration.toContext());
+            assertEquals(CommonUtils.getErrorMsg("inject.memoized.provider"), exception.getMsg());
+        }
+
+        static class CountingDependency implements Dependency {
+            static final AtomicInteger count = new AtomicInteger();
+
+            public CountingDependency() {
+                count.incrementAndGet();
+            }
+        }
+
+        static class JakartaProviderComponent implements Component {
+            @Inject
+            jakarta.inject.Provider<Dependency> provider;
+        }
+
+        static class MemoizedProviderComponent implements Component {
+            @Inject
+            @Memoized
+            jakarta.inject.Provider<Dependency> provider;
+        }
+
+        static class MemoizedInstanceComponent implements Component {
+            @Inject
+            @Memoized
+            Dependency dependency;
+        }
+    }
+
+    @Nested
+    class LazyInjection {
+        @BeforeEach
+        void setUp() {
+            CountingGreeter.count.set(0);
+        }
+
+        @Test
+        void should_construct_lazy_dependency_on_first_use() {
+            contextConfiguration.bind(Greeter.class, CountingGreeter.class);
+            contextConfiguration.bind(LazyComponent.class, LazyComponent.class);
+            Context context = contextConfiguration.toContext();
+
+            LazyComponent component = context.getInstance(LazyComponent.class).get();
+            assertEquals(0, CountingGreeter.count.get());
+            assertEquals("hello", component.greeter.greet());
+            assertEquals("hello", component.greeter.greet());
+            assertEquals(1, CountingGreeter.count.get());
+        }
+
+        @Test
+        void should_construct_lazy_dependency_once_across_threads() throws Exception {
+            contextConfiguration.bind(Greeter.class, CountingGreeter.class);
+            contextConfiguration.bind(LazyComponent.class, LazyComponent.class);
+            Greeter greeter = contextConfiguration.toContext().getInstance(LazyComponent.class).get().greeter;
+            int threads = 8;
+            CyclicBarrier barrier = new CyclicBarrier(threads);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<String>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    results.add(executor.submit(() -> {
+                        barrier.await();
+                        return greeter.greet();
+                    }));
+                }
+                for (Future<String> result : results) {
+                    assertEquals("hello", result.get());
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            assertEquals(1, CountingGreeter.count.get());
+        }
+
+        @Test
+        void should_not_treat_lazy_dependency_as_cycle() {
+            contextConfiguration.bind(Greeter.class, CyclicGreeter.class);
+            contextConfiguration.bind(LazyComponent.class, LazyComponent.class);
+
+            LazyComponent component = contextConfiguration.toContext().getInstance(LazyComponent.class).get();
+            assertEquals("cyclic", component.greeter.greet());
+        }
+
+        @Test
+        void should_throw_exception_if_lazy_dependency_not_found() {
+            contextConfiguration.bind(LazyComponent.class, LazyComponent.class);
+
+            DependencyNotFoundException exception = assertThrows(DependencyNotFoundException.class, () -> contextConfiguration.toContext());
+            assertEquals(Greeter.class, exception.getDependencyType());
+        }
+
+        @Test
+        void should_throw_exception_if_lazy_injection_not_interface() {
+            contextConfiguration.bind(Component.class, LazyClassComponent.class);
+
+            IllegalInjectionException exception = assertThrows(IllegalInjectionException.class, () -> contextConfiguration.toContext());
+            assertEquals(CommonUtils.getErrorMsg("inject.lazy.interface"), exception.getMsg());
+        }
+
+        @Test
+        void should_propagate_exception_thrown_by_lazy_target() {
+            contextConfiguration.component(Greeter.class, () -> {
+                throw new IllegalStateException("unavailable");
+            });
+            contextConfiguration.bind(LazyComponent.class, LazyComponent.class);
+
+            Greeter greeter = contextConfiguration.toContext().getInstance(LazyComponent.class).get().greeter;
+            assertEquals("unavailable", assertThrows(IllegalStateException.class, greeter::greet).getMessage());
+        }
+
+        @Test
+        void should_propagate_exception_thrown_by_lazy_target_method() {
+            contextConfiguration.bind(Greeter.class, FailingGreeter.class);
+            contextConfiguration.bind(LazyComponent.class, LazyComponent.class);
+
+            Greeter greeter = contextConfiguration.toContext().getInstance(LazyComponent.class).get().greeter;
+            assertEquals("silent", assertThrows(UnsupportedOperationException.class, greeter::greet).getMessage());
+        }
+
+        @Test
+        void should_call_lazy_dependency_through_non_public_interface() {
+            HiddenGreeting.bind(contextConfiguration);
+
+            assertEquals("hidden", contextConfiguration.toContext().getInstance(HiddenGreeting.LazyGreeting.class).get().greet());
+        }
+
+        interface Greeter {
+            String greet();
+        }
+
+        static class CountingGreeter implements Greeter {
+            static final AtomicInteger count = new AtomicInteger();
+
+            public CountingGreeter() {
+                count.incrementAndGet();
+            }
+
+            @Override
+            public String greet() {
+                return "hello";
+            }
+        }
+
+        static class FailingGreeter implements Greeter {
+            @Override
+            public String greet() {
+                throw new UnsupportedOperationException("silent");
+            }
+        }
+
+        static class CyclicGreeter implements Greeter {
+            @Inject
+            public CyclicGreeter(LazyComponent component) {
+            }
+
+            @Override
+            public String greet() {
+                return "cyclic";
+            }
+        }
+
+        static class LazyComponent {
+            @Inject
+            @Lazy
+            Greeter greeter;
+        }
+
+        static class LazyClassComponent implements Component {
+            @Inject
+            @Lazy
+            CountingGreeter greeter;
+        }
+    }
+
+    @Nested
+    class ChildContext {
+        @Test
+        void should_inherit_bindings_from_parent() {
+            contextConfiguration.bind(Dependency.class, DependencyImpl.class);
+            Context parent = contextConfiguration.toContext();
+            ContextConfiguration child = parent.child();
+            child.bind(Component.class, ComponentTypeProvider.ConstructionDependency.class);
+
+            Context context = child.toContext();
+            assertInstanceOf(DependencyImpl.class, context.getInstance(Component.class).get().getDependency());
+            assertTrue(parent.getInstance(Component.class).isEmpty());
+        }
+
+        @Test
+        void should_use_override_for_inherited_components() {
+            contextConfiguration.bind(Component.class, ComponentTypeProvider.ConstructionDependency.class);
+            contextConfiguration.bind(Dependency.class, DependencyImpl.class);
+            Context parent = contextConfiguration.toContext();
+            ContextConfiguration child = parent.child();
+            child.bind(Dependency.class, AnotherDependencyImpl.class);
+
+            Context context = child.toContext();
+            assertInstanceOf(AnotherDependencyImpl.class, context.getInstance(Component.class).get().getDependency());
+            assertInstanceOf(DependencyImpl.class, parent.getInstance(Component.class).get().getDependency());
+        }
+
+        @Test
+        void should_create_own_singleton_if_it_depends_on_override() {
+            contextConfiguration.bind(Component.class, SingletonComponent.class);
+            contextConfiguration.bind(Dependency.class, DependencyImpl.class);
+            Context parent = contextConfiguration.toContext();
+            ContextConfiguration child = parent.child();
+            child.bind(Dependency.class, AnotherDependencyImpl.class);
+
+            Context context = child.toContext();
+            Component component = context.getInstance(Component.class).get();
+            assertSame(component, context.getInstance(Component.class).get());
+            assertInstanceOf(AnotherDependencyImpl.class, component.getDependency());
+            assertInstanceOf(DependencyImpl.class, parent.getInstance(Component.class).get().getDependency());
+        }
+
+        @Test
+        void should_share_parent_singleton_if_not_affected_by_override() {
+            contextConfiguration.bind(Component.class, SingletonComponent.class);
+            contextConfiguration.bind(Dependency.class, DependencyImpl.class);
+            Context parent = contextConfiguration.toContext();
+            ContextConfiguration child = parent.child();
+            child.component(AnotherDependency.class, new AnotherDependency() {
+            });
+
+            assertSame(parent.getInstance(Component.class).get(), child.toContext().getInstance(Component.class).get());
+        }
+
+        @Test
+        void should_throw_exception_if_child_dependency_not_found() {
+            Context parent = contextConfiguration.toContext();
+            ContextConfiguration child = parent.child();
+            child.bind(Component.class, ComponentTypeProvider.ConstructionDependency.class);
+
+            DependencyNotFoundException exception = assertThrows(DependencyNotFoundException.class, child::toContext);
+            assertEquals(Dependency.class, exception.getDependencyType());
+        }
+
+        @Test
+        void should_throw_exception_if_override_introduces_cycle_through_parent() {
+            contextConfiguration.bind(Component.class, ComponentTypeProvider.ConstructionDependency.class);
+            contextConfiguration.bind(Dependency.class, DependencyImpl.class);
+            Context parent = contextConfiguration.toContext();
+            ContextConfiguration child = parent.child();
+            child.bind(Dependency.class, DependencyWithAnotherDependency.class);
+            child.bind(AnotherDependency.class, DependencyWithBean.class);
+
+            assertThrows(CyclicDependencyException.class, child::toContext);
+        }
+
+        static class DependencyImpl implements Dependency {
+        }
+
+        static class AnotherDependencyImpl implements Dependency {
+        }
+
+        @jakarta.inject.Singleton
+        static class SingletonComponent extends ComponentTypeProvider.ConstructionDependency {
+            @Inject
+            public SingletonComponent(Dependency dependency) {
+                super(dependency);
+            }
+        }
+    }
+
+    @Nested
+    class Multibinding {
+        @Test
+        void should_inject_all_bindings_as_list_in_binding_order() {
+            contextConfiguration.bind(Dependency.class, ChildContext.DependencyImpl.class);
+            contextConfiguration.bind(Dependency.class, ChildContext.AnotherDependencyImpl.class, AnnotationContainer.named("another"));
+            contextConfiguration.bind(Component.class, ListComponent.class);
+
+            List<Dependency> dependencies = ((ListComponent) contextConfiguration.toContext().getInstance(Component.class).get()).dependencies;
+            assertEquals(2, dependencies.size());
+            assertInstanceOf(ChildContext.DependencyImpl.class, dependencies.get(0));
+            assertInstanceOf(ChildContext.AnotherDependencyImpl.class, dependencies.get(1));
+            assertThrows(UnsupportedOperationException.class, () -> dependencies.add(dependencies.get(0)));
+        }
+
+        @Test
+        void should_inject_distinct_instances_as_set() {
+            Dependency dependency = new Dependency() {
+            };
+            contextConfiguration.component(Dependency.class, dependency, AnnotationContainer.named("first"), AnnotationContainer.named("second"));
+            contextConfiguration.bind(Component.class, SetComponent.class);
+
+            Set<Dependency> dependencies = ((SetComponent) contextConfiguration.toContext().getInstance(Component.class).get()).dependencies;
+            assertEquals(Set.of(dependency), dependencies);
+        }
+
+        @Test
+        void should_inject_empty_list_if_nothing_bound() {
+            contextConfiguration.bind(Component.class, ListComponent.class);
+
+            assertTrue(((ListComponent) contextConfiguration.toContext().getInstance(Component.class).get()).dependencies.isEmpty());
+            assertTrue(contextConfiguration.toContext().getInstances(Dependency.class).isEmpty());
+        }
+
+        @Test
+        void should_get_all_instances_of_type() {
+            contextConfiguration.bind(Dependency.class, ChildContext.DependencyImpl.class);
+            contextConfiguration.bind(Dependency.class, ChildContext.AnotherDependencyImpl.class, AnnotationContainer.named("another"));
+
+            assertEquals(2, contextConfiguration.toContext().getInstances(Dependency.class).size());
+        }
+
+        @Test
+        void should_throw_exception_if_member_depends_on_collection() {
+            contextConfiguration.bind(Dependency.class, CollectingDependency.class);
+
+            assertThrows(CyclicDependencyException.class, () -> contextConfiguration.toContext());
+        }
+
+        @Test
+        void should_throw_exception_if_collection_qualified() {
+            contextConfiguration.bind(Component.class, QualifiedListComponent.class);
+
+            assertThrows(IllegalInjectionException.class, () -> contextConfiguration.toContext());
+        }
+
+        @Test
+        void should_include_members_bound_in_child_context() {
+            contextConfiguration.bind(Dependency.class, ChildContext.DependencyImpl.class);
+            contextConfiguration.bind(Component.class, ListComponent.class);
+            Context parent = contextConfiguration.toContext();
+            ContextConfiguration child = parent.child();
+            child.bind(Dependency.class, ChildContext.AnotherDependencyImpl.class, AnnotationContainer.named("another"));
+
+            Context context = child.toContext();
+            assertEquals(2, ((ListComponent) context.getInstance(Component.class).get()).dependencies.size());
+            assertEquals(1, ((ListComponent) parent.getInstance(Component.class).get()).dependencies.size());
+        }
+
+        static class ListComponent implements Component {
+            final List<Dependency> dependencies;
+
+            @Inject
+            public ListComponent(List<Dependency> dependencies) {
+                this.dependencies = dependencies;
+            }
+        }
+
+        static class SetComponent implements Component {
+            @Inject
+            Set<Dependency> dependencies;
+        }
+
+        static class QualifiedListComponent implements Component {
+            @Inject
+            @Named
+            List<Dependency> dependencies;
+        }
+
+        static class CollectingDependency implements Dependency {
+            @Inject
+            public CollectingDependency(List<Dependency> dependencies) {
+            }
+        }
+    }
+
+    @Nested
+    class Rebind {
+        @Test
+        void should_resolve_new_binding_after_rebind() {
+            contextConfiguration.bind(Component.class, ComponentTypeProvider.ConstructionDependency.class);
+            contextConfiguration.bind(Dependency.class, ChildContext.DependencyImpl.class);
+            Context context = contextConfiguration.toContext();
+
+            ContextConfiguration changes = new ContextConfiguration();
+            changes.bind(Dependency.class, ChildContext.AnotherDependencyImpl.class);
+            context.rebind(changes);
+
+            assertInstanceOf(ChildContext.AnotherDependencyImpl.class, context.getInstance(Component.class).get().getDependency());
+        }
+
+        @Test
+        void should_recreate_singleton_depending_on_rebound_component() {
+            contextConfiguration.bind(Component.class, ChildContext.SingletonComponent.class);
+            contextConfiguration.bind(Dependency.class, ChildContext.DependencyImpl.class);
+            Context context = contextConfiguration.toContext();
+            Component before = context.getInstance(Component.class).get();
+
+            ContextConfiguration changes = new ContextConfiguration();
+            changes.bind(Dependency.class, ChildContext.AnotherDependencyImpl.class);
+            context.rebind(changes);
+
+            Component after = context.getInstance(Component.class).get();
+            assertNotSame(before, after);
+            assertSame(after, context.getInstance(Component.class).get());
+            assertInstanceOf(ChildContext.AnotherDependencyImpl.class, after.getDependency());
+        }
+
+        @Test
+        void should_keep_singleton_not_affected_by_rebind() {
+            contextConfiguration.bind(Component.class, ChildContext.SingletonComponent.class);
+            contextConfiguration.bind(Dependency.class, ChildContext.DependencyImpl.class);
+            Context context = contextConfiguration.toContext();
+            Component before = context.getInstance(Component.class).get();
+
+            ContextConfiguration changes = new ContextConfiguration();
+            changes.component(AnotherDependency.class, new AnotherDependency() {
+            });
+            context.rebind(changes);
+
+            assertSame(before, context.getInstance(Component.class).get());
+            assertTrue(context.getInstance(AnotherDependency.class).isPresent());
+        }
+
+        @Test
+        void should_keep_injected_provider_on_snapshot_it_was_created_from() {
+            contextConfiguration.bind(Dependency.class, ChildContext.DependencyImpl.class);
+            contextConfiguration.bind(Component.class, ProviderInjection.JakartaProviderComponent.class);
+            Context context = contextConfiguration.toContext();
+            ProviderInjection.JakartaProviderComponent component =
+                (ProviderInjection.JakartaProviderComponent) context.getInstance(Component.class).get();
+
+            ContextConfiguration changes = new ContextConfiguration();
+            changes.bind(Dependency.class, ChildContext.AnotherDependencyImpl.class);
+            context.rebind(changes);
+
+            assertInstanceOf(ChildContext.DependencyImpl.class, component.provider.get());
+            assertInstanceOf(ChildContext.AnotherDependencyImpl.class, context.getInstance(Dependency.class).get());
+        }
+
+        @Test
+        void should_not_publish_rebind_introducing_cycle() {
+            contextConfiguration.bind(Component.class, ComponentTypeProvider.ConstructionDependency.class);
+            contextConfiguration.bind(Dependency.class, ChildContext.DependencyImpl.class);
+            contextConfiguration.bind(AnotherDependency.class, DependencyWithBean.class);
+            Context context = contextConfiguration.toContext();
+
+            ContextConfiguration changes = new ContextConfiguration();
+            changes.bind(Dependency.class, DependencyWithAnotherDependency.class);
+            CyclicDependencyException exception = assertThrows(CyclicDependencyException.class, () -> context.rebind(changes));
+            assertEquals(Set.of(ComponentTypeProvider.ConstructionDependency.class, DependencyWithAnotherDependency.class, DependencyWithBean.class),
+                Set.copyOf(exception.getDependencies()));
+            assertInstanceOf(ChildContext.DependencyImpl.class, context.getInstance(Dependency.class).get());
+        }
+
+        @Test
+        void should_not_publish_rebind_with_missing_dependency() {
+            contextConfiguration.bind(Dependency.class, ChildContext.DependencyImpl.class);
+            Context context = contextConfiguration.toContext();
+
+            ContextConfiguration changes = new ContextConfiguration();
+            changes.bind(Dependency.class, DependencyWithAnotherDependency.class);
+            DependencyNotFoundException exception = assertThrows(DependencyNotFoundException.class, () -> context.rebind(changes));
+            assertEquals(AnotherDependency.class, exception.getDependencyType());
+            assertInstanceOf(ChildContext.DependencyImpl.class, context.getInstance(Dependency.class).get());
+        }
+
+        @Test
+        void should_add_rebound_member_to_collection_injection() {
+            contextConfiguration.bind(Dependency.class, ChildContext.DependencyImpl.class);
+            contextConfiguration.bind(Component.class, Multibinding.ListComponent.class);
+            Context context = contextConfiguration.toContext();
+
+            ContextConfiguration changes = new ContextConfiguration();
+            changes.bind(Dependency.class, ChildContext.AnotherDependencyImpl.class, AnnotationContainer.named("another"));
+            context.rebind(changes);
+
+            assertEquals(2, ((Multibinding.ListComponent) context.getInstance(Component.class).get()).dependencies.size());
+            assertEquals(2, context.getInstances(Dependency.class).size());
+        }
+
+        @Test
+        void should_reject_collection_member_introducing_cycle() {
+            contextConfiguration.bind(Dependency.class, ChildContext.DependencyImpl.class);
+            Context context = contextConfiguration.toContext();
+
+            ContextConfiguration changes = new ContextConfiguration();
+            changes.bind(Dependency.class, Multibinding.CollectingDependency.class, AnnotationContainer.named("collecting"));
+            assertThrows(CyclicDependencyException.class, () -> context.rebind(changes));
+            assertEquals(1, context.getInstances(Dependency.class).size());
+        }
+
+        @Test
+        void should_rebind_child_context_against_its_parent() {
+            contextConfiguration.bind(Dependency.class, ChildContext.DependencyImpl.class);
+            ContextConfiguration child = contextConfiguration.toContext().child();
+            child.bind(Component.class, ComponentTypeProvider.ConstructionDependency.class);
+            Context context = child.toContext();
+
+            ContextConfiguration changes = new ContextConfiguration();
+            changes.bind(Dependency.class, ChildContext.AnotherDependencyImpl.class);
+            context.rebind(changes);
+
+            assertInstanceOf(ChildContext.AnotherDependencyImpl.class, context.getInstance(Component.class).get().getDependency());
+        }
+
+        @Test
+        void should_resolve_consistent_snapshot_while_rebinding() throws Exception {
+            contextConfiguration.bind(Component.class, ComponentTypeProvider.ConstructionDependency.class);
+            contextConfiguration.bind(Dependency.class, ChildContext.DependencyImpl.class);
+            Context context = contextConfiguration.toContext();
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<?>> readers = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    readers.add(executor.submit(() -> {
+                        for (int j = 0; j < 1_000; j++) {
+                            Component component = context.getInstance(Component.class).get();
+                            assertNotNull(component.getDependency());
+                        }
+                    }));
+                }
+                for (int i = 0; i < 100; i++) {
+                    ContextConfiguration changes = new ContextConfiguration();
+                    changes.bind(Dependency.class, i % 2 == 0 ? ChildContext.AnotherDependencyImpl.class : ChildContext.DependencyImpl.class);
+                    context.rebind(changes);
+                }
+                for (Future<?> reader : readers) {
+                    reader.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    class Footprint {
+        @Test
+        void should_intern_refs_and_descriptors() {
+            assertSame(Ref.of(Component.class), Ref.of(Component.class));
+            assertSame(Ref.of(Component.class, AnnotationContainer.named("a")), Ref.of(Component.class, AnnotationContainer.named("a")));
+            assertSame(Ref.of(Component.class), Ref.of(Component.class, null));
+            assertSame(new ComponentProvider<>(ComponentTypeProvider.ConstructionDependency.class).getDependencies().get(0),
+                new ComponentProvider<>(ComponentTypeProvider.FieldDependency.class).getDependencies().get(0));
+        }
+
+        @Test
+        void should_release_interned_qualifiers_no_longer_referenced() throws InterruptedException {
+            Annotation qualifier = AnnotationContainer.named("released");
+            Ref.of(Component.class, qualifier);
+            Descriptor.of(Component.class, qualifier);
+            WeakReference<Annotation> reference = new WeakReference<>(qualifier);
+            qualifier = null;
+
+            for (int i = 0; i < 50 && reference.get() != null; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            assertNull(reference.get());
+        }
+
+        @Test
+        void should_report_footprint_of_each_binding() {
+            contextConfiguration.bind(Component.class, ComponentTypeProvider.ConstructionDependency.class);
+            contextConfiguration.bind(Dependency.class, ChildContext.DependencyImpl.class);
+
+            MemoryFootprint footprint = contextConfiguration.toContext().footprint();
+            assertEquals(List.of(Ref.of(Component.class), Ref.of(Dependency.class)), List.copyOf(footprint.bindings().keySet()));
+            assertTrue(footprint.bindings().values().stream().allMatch(bytes -> bytes > 0));
+            assertTrue(footprint.bindings().get(Ref.of(Component.class)) > footprint.bindings().get(Ref.of(Dependency.class)));
+        }
+
+        @Test
+        void should_count_metadata_shared_between_bindings_once() {
+            contextConfiguration.bind(Component.class, ComponentTypeProvider.ConstructionDependency.class,
+                AnnotationContainer.named("first"), AnnotationContainer.named("second"));
+            contextConfiguration.bind(Dependency.class, ChildContext.DependencyImpl.class);
+            contextConfiguration.bind(Component.class, ComponentTypeProvider.ConstructionDependency.class);
+
+            MemoryFootprint footprint = contextConfiguration.toContext().footprint();
+            assertTrue(footprint.shared() > 0);
+            assertEquals(footprint.total(), footprint.bindings().values().stream().mapToLong(Long::longValue).sum() + footprint.shared());
+        }
+
+        @Test
+        void should_keep_per_binding_footprint_bounded_in_large_context() {
+            int size = 10_000;
+            for (int i = 0; i < size; i++) {
+                contextConfiguration.component(Dependency.class, new ChildContext.DependencyImpl(), AnnotationContainer.named(String.valueOf(i)));
+            }
+
+            MemoryFootprint footprint = contextConfiguration.toContext().footprint();
+            assertEquals(size, footprint.bindings().size());
+            assertTrue(footprint.total() / size <= 256, () -> footprint.total() / size + " bytes per binding");
+        }
+    }
+
+    @Nested
+    class Snapshot {
+        @TempDir
+        Path directory;
+
+        @Test
+        void should_restore_graph_from_snapshot_without_analyzing_dependencies() {
+            Path snapshot = directory.resolve("context.snapshot");
+            AtomicInteger analyzed = new AtomicInteger();
+            new Context(chain(3, analyzed), snapshot);
+            assertEquals(3, analyzed.get());
+            assertTrue(Files.exists(snapshot));
+
+            analyzed.set(0);
+            Context context = new Context(chain(3, analyzed), snapshot);
+            assertEquals(0, analyzed.get());
+            assertTrue(context.getInstance(Object.class, AnnotationContainer.named("0")).isPresent());
+        }
+
+        @Test
+        void should_validate_again_if_bindings_changed() {
+            Path snapshot = directory.resolve("context.snapshot");
+            new Context(chain(3, new AtomicInteger()), snapshot);
+
+            Map<Ref, Provider<?>> bindings = chain(3, new AtomicInteger());
+            bindings.remove(Ref.of(Object.class, AnnotationContainer.named("2")));
+            assertThrows(DependencyNotFoundException.class, () -> new Context(bindings, snapshot));
+        }
+
+        @Test
+        void should_ignore_corrupted_snapshot() throws IOException {
+            Path snapshot = directory.resolve("context.snapshot");
+            Files.write(snapshot, new byte[]{1, 2, 3});
+            AtomicInteger analyzed = new AtomicInteger();
+
+            new Context(chain(3, analyzed), snapshot);
+            assertEquals(3, analyzed.get());
+            assertTrue(Files.size(snapshot) > 3);
+        }
+
+        @Test
+        void should_build_context_from_configuration_with_snapshot() {
+            Path snapshot = directory.resolve("context.snapshot");
+            contextConfiguration.bind(Component.class, ComponentTypeProvider.ConstructionDependency.class);
+            contextConfiguration.bind(Dependency.class, DependencyCheck.DependencyWithComponentProvider.class);
+            contextConfiguration.toContext(snapshot);
+
+            Component component = contextConfiguration.toContext(snapshot).getInstance(Component.class).get();
+            assertNotNull(component.getDependency());
+        }
+
+        @Test
+        void should_build_context_if_snapshot_cannot_be_written() {
+            Path snapshot = directory.resolve("missing").resolve("context.snapshot");
+
+            Context context = assertDoesNotThrow(() -> new Context(chain(3, new AtomicInteger()), snapshot));
+            assertTrue(context.getInstance(Object.class, AnnotationContainer.named("0")).isPresent());
+            assertFalse(Files.exists(snapshot));
+        }
+
+        private static Map<Ref, Provider<?>> chain(int size, AtomicInteger analyzed) {
+            Map<Ref, Provider<?>> bindings = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                int[] dependencies = i + 1 < size ? new int[]{i + 1} : new int[0];
+                bindings.put(Ref.of(Object.class, AnnotationContainer.named(String.valueOf(i))),
+                    new CountingNodeProvider(new DependencyCheck.NodeProvider(dependencies), analyzed));
+            }
+            return bindings;
+        }
+
+        record CountingNodeProvider(Provider<Object> provider, AtomicInteger analyzed) implements Provider<Object> {
+            @Override
+            public Object get(Context context) {
+                return provider.get(context);
+            }
+
+            @Override
+            public List<Descriptor> getDependencies() {
+                analyzed.incrementAndGet();
+                return provider.getDependencies();
+            }
+        }
+    }
+
+    @Nested
+    class Metrics {
+        @Test
+        void should_record_instances_and_separate_resolution_from_construction() {
+            Instrumentation instrumentation = contextConfiguration.instrument();
+            contextConfiguration.bind(Component.class, ComponentTypeProvider.ConstructionDependency.class);
+            contextConfiguration.bind(Dependency.class, SlowDependency.class);
+            Context context = contextConfiguration.toContext();
+
+            for (int i = 0; i < 3; i++) {
+                context.getInstance(Component.class);
+            }
+
+            Map<Ref, ComponentMetrics> snapshot = instrumentation.snapshot();
+            ComponentMetrics component = snapshot.get(Ref.of(Component.class));
+            ComponentMetrics dependency = snapshot.get(Ref.of(Dependency.class));
+            assertEquals(3, component.instances());
+            assertEquals(3, dependency.instances());
+            assertTrue(component.resolutionNanos() >= dependency.totalNanos());
+            assertTrue(component.resolutionNanos() >= Duration.ofMillis(3 * SlowDependency.MILLIS).toNanos());
+            assertTrue(component.constructionNanos() < component.resolutionNanos());
+            assertTrue(dependency.p50Nanos() >= Duration.ofMillis(SlowDependency.MILLIS).toNanos());
+            assertTrue(component.p50Nanos() <= dependency.p50Nanos());
+            assertTrue(component.p50Nanos() <= component.p99Nanos());
+        }
+
+        @Test
+        void should_record_binding_under_every_qualifier() {
+            Instrumentation instrumentation = contextConfiguration.instrument();
+            contextConfiguration.bind(Dependency.class, SlowDependency.class,
+                AnnotationContainer.named("first"), AnnotationContainer.named("second"));
+            Context context = contextConfiguration.toContext();
+
+            context.getInstance(Dependency.class, AnnotationContainer.named("second"));
+
+            Map<Ref, ComponentMetrics> snapshot = instrumentation.snapshot();
+            assertEquals(1, snapshot.get(Ref.of(Dependency.class, AnnotationContainer.named("first"))).instances());
+            assertEquals(1, snapshot.get(Ref.of(Dependency.class, AnnotationContainer.named("second"))).instances());
+        }
+
+        @Test
+        void should_keep_histogram_buckets_within_one_sixteenth_of_recorded_value() {
+            for (long value : new long[]{0, 1, 15, 16, 17, 33, 1_000, 65_535, 1_234_567, 5_000_000_000L}) {
+                long upperBound = Instrumentation.Recorder.upperBound(Instrumentation.Recorder.bucket(value));
+                assertTrue(upperBound >= value);
+                assertTrue(upperBound - value <= value / 16);
+            }
+        }
+
+        @Test
+        void should_count_singleton_creation_once() {
+            Instrumentation instrumentation = contextConfiguration.instrument();
+            contextConfiguration.bind(Component.class, ChildContext.SingletonComponent.class);
+            contextConfiguration.bind(Dependency.class, DependencyCheck.DependencyWithComponentProvider.class);
+            Context context = contextConfiguration.toContext();
+
+            context.getInstance(Component.class);
+            context.getInstance(Component.class);
+
+            assertEquals(1, instrumentation.snapshot().get(Ref.of(Component.class)).instances());
+        }
+
+        @Test
+        void should_not_wrap_providers_if_not_instrumented() {
+            contextConfiguration.bind(Dependency.class, SlowDependency.class);
+            Context context = contextConfiguration.toContext();
+
+            assertFalse(context.getProvider(Dependency.class).get() instanceof InstrumentedProvider<?>);
+        }
+
+        @Test
+        void should_emit_jfr_event_for_each_created_component() throws IOException {
+            contextConfiguration.instrument();
+            contextConfiguration.bind(Dependency.class, SlowDependency.class);
+            Context context = contextConfiguration.toContext();
+
+            Path dump = Files.createTempFile("container", ".jfr");
+            try (Recording recording = new Recording()) {
+                recording.enable(ComponentCreatedEvent.class).withThreshold(Duration.ZERO);
+                recording.start();
+                context.getInstance(Dependency.class);
+                recording.stop();
+                recording.dump(dump);
+
+                List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                    .filter(event -> event.getEventType().getName().equals("pers.lenwind.container.ComponentCreated"))
+                    .toList();
+                assertEquals(1, events.size());
+                assertEquals(Dependency.class.getName(), events.get(0).getString("binding"));
+                assertEquals(SlowDependency.class.getName(),
+                    events.get(0).getClass("componentType").getName());
+            } finally {
+                Files.deleteIfExists(dump);
+            }
+        }
+
+        static class SlowDependency implements Dependency {
+            static final int MILLIS = 5;
+
+            public SlowDependency() throws InterruptedException {
+                Thread.sleep(MILLIS);
+            }
+        }
     }
 
     interface AnotherDependency {
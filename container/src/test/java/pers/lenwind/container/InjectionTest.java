@@ -13,11 +13,13 @@ import pers.lenwind.container.exception.IllegalInjectionException;
 import pers.lenwind.container.exception.MultiInjectException;
 import pers.lenwind.container.exception.NoAvailableConstructionException;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.lang.reflect.ParameterizedType;
-import java.util.Optional;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -34,8 +36,8 @@ class InjectionTest {
     @BeforeEach
     void setUp() throws NoSuchFieldException {
         dependencyProviderType = (ParameterizedType) InjectionTest.class.getDeclaredField("dependencyProvider").getGenericType();
-        when(context.get(eq(Descriptor.of(Dependency.class, null)))).thenReturn(Optional.of(dependency));
-        when(context.get(eq(Descriptor.of(dependencyProviderType, null)))).thenReturn(Optional.of(dependencyProvider));
+        when(context.resolve(eq(Descriptor.of(Dependency.class, null)), any())).thenReturn(dependency);
+        when(context.resolve(eq(Descriptor.of(dependencyProviderType, null)), any())).thenReturn(dependencyProvider);
     }
 
     @ParameterizedTest(name = "inject {0}")
@@ -56,7 +58,7 @@ class InjectionTest {
 
     @Test
     void should_inject_dependency_with_qualifier() {
-        when(context.get(eq(Descriptor.of(String.class, AnnotationContainer.getNamed())))).thenReturn(Optional.of("any"));
+        when(context.resolve(eq(Descriptor.of(String.class, AnnotationContainer.getNamed())), any())).thenReturn("any");
         QualifierComponent component = new ComponentProvider<>(QualifierComponent.class).get(context);
 
         assertEquals("any", component.dependency);
@@ -68,6 +70,45 @@ class InjectionTest {
         private String dependency;
     }
 
+    @Test
+    void should_inject_construction_parameter_with_qualifier() {
+        when(context.resolve(eq(Descriptor.of(String.class, AnnotationContainer.getNamed())), any())).thenReturn("any");
+        QualifierConstructionComponent component = new ComponentProvider<>(QualifierConstructionComponent.class).get(context);
+
+        assertEquals("any", component.dependency);
+        assertSame(dependency, component.another);
+    }
+
+    static class QualifierConstructionComponent {
+        private String dependency;
+        private Dependency another;
+
+        @Inject
+        public QualifierConstructionComponent(@jakarta.inject.Named String dependency, Dependency another) {
+            this.dependency = dependency;
+            this.another = another;
+        }
+    }
+
+    @Test
+    void should_throw_exception_if_multiple_qualifiers_on_one_injection_point() {
+        IllegalInjectionException exception = assertThrows(IllegalInjectionException.class,
+            () -> new ComponentProvider<>(MultiQualifierComponent.class));
+        assertEquals(CommonUtils.getErrorMsg("inject.qualifier.multiple"), exception.getMsg());
+    }
+
+    @jakarta.inject.Qualifier
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Primary {
+    }
+
+    static class MultiQualifierComponent {
+        @Primary
+        @jakarta.inject.Named
+        @Inject
+        private String dependency;
+    }
+
     @Nested
     class ConstructionInjection {
         @Test
@@ -1,4 +1,797 @@
 package pers.lenwind.container;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Scope;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import pers.lenwind.container.exception.DependencyNotFoundException;
+import pers.lenwind.container.exception.IllegalInjectionException;
+import pers.lenwind.container.exception.UnsupportedBindException;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 class LifeCycleManagementTest {
+    private ContextConfiguration contextConfiguration;
+
+    @BeforeEach
+    void setUp() {
+        contextConfiguration = new ContextConfiguration();
+    }
+
+    @Test
+    void should_create_new_instance_for_each_lookup_as_default() {
+        contextConfiguration.bind(Component.class, PrototypeComponent.class);
+        Context context = contextConfiguration.toContext();
+
+        assertNotSame(context.getInstance(Component.class).get(), context.getInstance(Component.class).get());
+    }
+
+    @Nested
+    class SingletonScope {
+        @Test
+        void should_return_same_instance_if_singleton_annotation_on_component() {
+            contextConfiguration.bind(Component.class, SingletonComponent.class);
+            Context context = contextConfiguration.toContext();
+
+            assertSame(context.getInstance(Component.class).get(), context.getInstance(Component.class).get());
+        }
+
+        @Test
+        void should_return_same_instance_if_singleton_annotation_in_bind() {
+            contextConfiguration.bind(Component.class, PrototypeComponent.class, singleton());
+            Context context = contextConfiguration.toContext();
+
+            assertSame(context.getInstance(Component.class).get(), context.getInstance(Component.class).get());
+        }
+
+        @Test
+        void should_share_singleton_between_qualifiers() {
+            contextConfiguration.bind(Component.class, PrototypeComponent.class, singleton(), AnnotationContainer.getNamed());
+            Context context = contextConfiguration.toContext();
+
+            Component component = context.getInstance(Component.class, AnnotationContainer.getNamed()).get();
+            assertSame(component, context.getInstance(Component.class, AnnotationContainer.getNamed()).get());
+            assertTrue(context.getInstance(Component.class).isEmpty());
+        }
+
+        @Test
+        void should_inject_singleton_dependency_to_prototype_component() {
+            contextConfiguration.bind(Dependency.class, SingletonDependency.class);
+            contextConfiguration.bind(Component.class, ComponentTypeProvider.ConstructionDependency.class);
+            Context context = contextConfiguration.toContext();
+
+            assertSame(context.getInstance(Component.class).get().getDependency(),
+                context.getInstance(Component.class).get().getDependency());
+        }
+
+        @Test
+        void should_check_dependencies_of_singleton_component() {
+            contextConfiguration.bind(Component.class, SingletonComponentWithDependency.class);
+
+            assertThrows(DependencyNotFoundException.class, () -> contextConfiguration.toContext());
+        }
+
+        @Test
+        void should_create_singleton_once_under_concurrent_first_access() throws Exception {
+            CountingComponent.count.set(0);
+            contextConfiguration.bind(Component.class, CountingComponent.class);
+            Context context = contextConfiguration.toContext();
+            int threads = 16;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CyclicBarrier barrier = new CyclicBarrier(threads);
+            try {
+                List<Future<Component>> futures = executor.invokeAll(IntStream.range(0, threads)
+                    .<Callable<Component>>mapToObj(i -> () -> {
+                        barrier.await();
+                        return context.getInstance(Component.class).get();
+                    }).toList());
+                Component first = futures.get(0).get();
+                for (Future<Component> future : futures) {
+                    assertSame(first, future.get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+            assertEquals(1, CountingComponent.count.get());
+        }
+    }
+
+    @Nested
+    class EagerInitialization {
+        private final ForkJoinPool pool = new ForkJoinPool(4);
+
+        @AfterEach
+        void tearDown() {
+            pool.shutdown();
+        }
+
+        @Test
+        void should_create_singletons_while_building_context() {
+            CountingComponent.count.set(0);
+            contextConfiguration.bind(Component.class, CountingComponent.class);
+            contextConfiguration.bind(Dependency.class, PrototypeDependency.class);
+
+            Context context = contextConfiguration.toContext(pool);
+            assertEquals(1, CountingComponent.count.get());
+            context.getInstance(Component.class);
+            assertEquals(1, CountingComponent.count.get());
+        }
+
+        @Test
+        void should_create_independent_singletons_in_parallel_and_dependencies_first() {
+            ParallelComponent.latch = new CountDownLatch(2);
+            contextConfiguration.bind(Component.class, ParallelComponent.class, singleton(), AnnotationContainer.named("first"));
+            contextConfiguration.bind(Component.class, ParallelComponent.class, singleton(), AnnotationContainer.named("second"));
+            contextConfiguration.bind(Dependency.class, DependencyOnParallelComponents.class);
+
+            Context context = contextConfiguration.toContext(pool);
+            DependencyOnParallelComponents dependency = (DependencyOnParallelComponents) context.getInstance(Dependency.class).get();
+            assertSame(context.getInstance(Component.class, AnnotationContainer.named("first")).get(), dependency.first);
+            assertSame(context.getInstance(Component.class, AnnotationContainer.named("second")).get(), dependency.second);
+        }
+
+        @Test
+        void should_throw_exception_if_eager_construction_failed() {
+            contextConfiguration.bind(Component.class, FailingComponent.class);
+
+            assertThrows(IllegalStateException.class, () -> contextConfiguration.toContext(pool));
+        }
+    }
+
+    @Nested
+    class AsyncConstruction {
+        private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        @AfterEach
+        void tearDown() {
+            executor.shutdown();
+        }
+
+        @Test
+        void should_build_independent_dependencies_concurrently() throws Exception {
+            ParallelComponent.latch = new CountDownLatch(2);
+            contextConfiguration.bind(Component.class, ParallelComponent.class, AnnotationContainer.named("first"));
+            contextConfiguration.bind(Component.class, ParallelComponent.class, AnnotationContainer.named("second"));
+            contextConfiguration.bind(Dependency.class, DependencyOnParallelComponents.class);
+            Context context = contextConfiguration.toContext();
+
+            DependencyOnParallelComponents dependency = (DependencyOnParallelComponents) context
+                .getInstanceAsync(Dependency.class, executor).get(10, TimeUnit.SECONDS);
+            assertInstanceOf(ParallelComponent.class, dependency.first);
+            assertInstanceOf(ParallelComponent.class, dependency.second);
+        }
+
+        @Test
+        void should_create_singleton_once_for_concurrent_async_requests() throws Exception {
+            CountingComponent.count.set(0);
+            contextConfiguration.bind(Component.class, CountingComponent.class);
+            Context context = contextConfiguration.toContext();
+
+            CompletableFuture<Component> first = context.getInstanceAsync(Component.class, executor);
+            CompletableFuture<Component> second = context.getInstanceAsync(Component.class, executor);
+            assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+            assertSame(first.get(), context.getInstance(Component.class).get());
+            assertEquals(1, CountingComponent.count.get());
+        }
+
+        @Test
+        void should_fail_future_if_component_not_bound() {
+            Context context = contextConfiguration.toContext();
+
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> context.getInstanceAsync(Component.class, executor).get(10, TimeUnit.SECONDS));
+            DependencyNotFoundException cause = assertInstanceOf(DependencyNotFoundException.class, exception.getCause());
+            assertNull(cause.getInstanceType());
+            assertEquals(Component.class, cause.getDependencyType());
+        }
+
+        @Test
+        void should_not_intern_qualifier_of_unbound_request() {
+            Context context = contextConfiguration.toContext();
+
+            CompletableFuture<Component> future = context.getInstanceAsync(Component.class, AnnotationContainer.named("unbound"), executor);
+            assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+            assertNull(Qualifiers.find(AnnotationContainer.named("unbound")));
+        }
+
+        @Test
+        void should_fail_future_if_dependency_construction_failed() {
+            contextConfiguration.bind(Component.class, FailingComponent.class);
+            contextConfiguration.bind(Dependency.class, DependencyOnFailingComponent.class);
+            Context context = contextConfiguration.toContext();
+
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> context.getInstanceAsync(Dependency.class, executor).get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, exception.getCause());
+        }
+
+        @Test
+        void should_not_block_single_thread_executor_on_singleton_in_flight() throws Exception {
+            contextConfiguration.bind(Component.class, CountingComponent.class);
+            contextConfiguration.bind(Dependency.class, DependencyOnComponentListAndComponent.class);
+            Context context = contextConfiguration.toContext();
+            ExecutorService single = Executors.newSingleThreadExecutor();
+            try {
+                DependencyOnComponentListAndComponent dependency = (DependencyOnComponentListAndComponent) context
+                    .getInstanceAsync(Dependency.class, single).get(10, TimeUnit.SECONDS);
+                assertSame(dependency.component, dependency.components.get(0));
+            } finally {
+                single.shutdownNow();
+            }
+        }
+
+        @Test
+        void should_not_block_single_thread_executor_on_instrumented_dependency() throws Exception {
+            contextConfiguration.instrument();
+            contextConfiguration.bind(Component.class, CountingComponent.class);
+            contextConfiguration.bind(Dependency.class, DependencyOnComponentListAndComponent.class);
+            Context context = contextConfiguration.toContext();
+            ExecutorService single = Executors.newSingleThreadExecutor();
+            try {
+                DependencyOnComponentListAndComponent dependency = (DependencyOnComponentListAndComponent) context
+                    .getInstanceAsync(Dependency.class, single).get(10, TimeUnit.SECONDS);
+                assertSame(dependency.component, dependency.components.get(0));
+            } finally {
+                single.shutdownNow();
+            }
+        }
+    }
+
+    static class DependencyOnComponentListAndComponent implements Dependency {
+        final List<Component> components;
+        final Component component;
+
+        @Inject
+        public DependencyOnComponentListAndComponent(List<Component> components, Component component) {
+            this.components = components;
+            this.component = component;
+        }
+    }
+
+    @Nested
+    class PooledScope {
+        @Test
+        void should_not_share_pool_with_child_overriding_dependency() {
+            contextConfiguration.bind(Component.class, PooledComponentWithDependency.class);
+            contextConfiguration.bind(Dependency.class, PrototypeDependency.class);
+            Context parent = contextConfiguration.toContext();
+            ContextConfiguration child = parent.child();
+            Dependency override = new Dependency() {
+            };
+            child.component(Dependency.class, override);
+            Context context = child.toContext();
+
+            try (Lease<Component> lease = context.lease(Component.class).get()) {
+                assertSame(override, ((PooledComponentWithDependency) lease.get()).dependency);
+            }
+            try (Lease<Component> lease = parent.lease(Component.class).get()) {
+                assertInstanceOf(PrototypeDependency.class, ((PooledComponentWithDependency) lease.get()).dependency);
+            }
+        }
+
+        @Test
+        void should_reuse_instance_returned_by_lease() {
+            contextConfiguration.bind(Component.class, PooledComponent.class);
+            Context context = contextConfiguration.toContext();
+
+            Component first;
+            try (Lease<Component> lease = context.lease(Component.class).get()) {
+                first = lease.get();
+            }
+            try (Lease<Component> lease = context.lease(Component.class).get()) {
+                assertSame(first, lease.get());
+            }
+            assertEquals(new PoolStats(1, 1, 2, 0, 1), context.getPoolStats(Component.class, null).get());
+        }
+
+        @Test
+        void should_create_new_instance_if_pooled_instance_leased() {
+            contextConfiguration.bind(Component.class, PooledComponent.class);
+            Context context = contextConfiguration.toContext();
+
+            try (Lease<Component> first = context.lease(Component.class).get();
+                 Lease<Component> second = context.lease(Component.class).get()) {
+                assertNotSame(first.get(), second.get());
+            }
+        }
+
+        @Test
+        void should_discard_instances_beyond_capacity() {
+            contextConfiguration.bind(Component.class, PooledComponent.class);
+            Context context = contextConfiguration.toContext();
+
+            List<Lease<Component>> leases = IntStream.range(0, 3).mapToObj(i -> context.lease(Component.class).get()).toList();
+            leases.forEach(Lease::close);
+            leases.get(0).close();
+
+            PoolStats stats = context.getPoolStats(Component.class, null).get();
+            assertEquals(2, stats.idle());
+            assertEquals(2, stats.released());
+            assertEquals(1, stats.discarded());
+            assertThrows(IllegalStateException.class, () -> leases.get(0).get());
+        }
+
+        @Test
+        void should_never_lease_same_instance_to_two_threads() throws Exception {
+            contextConfiguration.bind(Component.class, PooledComponent.class);
+            Context context = contextConfiguration.toContext();
+            int threads = 8;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<Boolean>> futures = executor.invokeAll(IntStream.range(0, threads)
+                    .<Callable<Boolean>>mapToObj(i -> () -> {
+                        boolean exclusive = true;
+                        for (int j = 0; j < 10_000; j++) {
+                            try (Lease<Component> lease = context.lease(Component.class).get()) {
+                                PooledComponent component = (PooledComponent) lease.get();
+                                exclusive &= component.inUse.compareAndSet(false, true);
+                                component.inUse.set(false);
+                            }
+                        }
+                        return exclusive;
+                    }).toList());
+                for (Future<Boolean> future : futures) {
+                    assertTrue(future.get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+            PoolStats stats = context.getPoolStats(Component.class, null).get();
+            assertEquals(threads * 10_000L, stats.hits() + stats.misses());
+            assertTrue(stats.idle() <= 2);
+        }
+
+        @Test
+        void should_only_hand_out_pooled_component_through_lease() {
+            contextConfiguration.bind(Component.class, PooledComponent.class);
+            Context context = contextConfiguration.toContext();
+
+            assertThrows(UnsupportedBindException.class, () -> context.getInstance(Component.class));
+            assertTrue(context.lease(Component.class).isPresent());
+        }
+
+        @Test
+        void should_not_inject_pooled_component() {
+            contextConfiguration.bind(Component.class, PooledComponent.class);
+            contextConfiguration.bind(Dependency.class, DependencyOnComponentListAndComponent.class);
+
+            IllegalInjectionException exception = assertThrows(IllegalInjectionException.class, () -> contextConfiguration.toContext());
+            assertEquals(DependencyOnComponentListAndComponent.class, exception.getInstanceType());
+        }
+
+        @Test
+        void should_lease_non_pooled_component_without_returning_it() {
+            contextConfiguration.bind(Component.class, PrototypeComponent.class);
+            Context context = contextConfiguration.toContext();
+
+            Lease<Component> lease = context.lease(Component.class).get();
+            Component component = lease.get();
+            lease.close();
+            assertNotSame(component, context.lease(Component.class).get().get());
+            assertTrue(context.getPoolStats(Component.class, null).isEmpty());
+        }
+    }
+
+    @Nested
+    class LifecycleCallbacks {
+        @BeforeEach
+        void setUp() {
+            events.clear();
+        }
+
+        @Test
+        void should_call_post_construct_after_injection() {
+            contextConfiguration.bind(Dependency.class, PrototypeDependency.class);
+            contextConfiguration.bind(Component.class, PostConstructComponent.class);
+
+            PostConstructComponent component = (PostConstructComponent) contextConfiguration.toContext().getInstance(Component.class).get();
+            assertTrue(component.injectedBeforePostConstruct);
+        }
+
+        @Test
+        void should_call_superclass_callback_first_and_overridden_callback_once() {
+            contextConfiguration.bind(Component.class, SubclassCallbackComponent.class);
+
+            contextConfiguration.toContext().getInstance(Component.class);
+            assertEquals(List.of("super.init", "sub.start"), List.copyOf(events));
+        }
+
+        @Test
+        void should_throw_exception_if_callback_has_parameters() {
+            contextConfiguration.bind(Component.class, IllegalCallbackComponent.class);
+
+            assertThrows(IllegalInjectionException.class, () -> contextConfiguration.toContext());
+        }
+
+        @Test
+        void should_destroy_singletons_but_not_prototypes_on_close() {
+            contextConfiguration.bind(Component.class, DestroyedComponent.class, singleton());
+            contextConfiguration.bind(Dependency.class, DestroyedDependency.class);
+            Context context = contextConfiguration.toContext();
+            context.getInstance(Component.class);
+            context.getInstance(Dependency.class);
+
+            context.close();
+            context.close();
+            assertEquals(List.of("component"), List.copyOf(events));
+        }
+
+        @Test
+        void should_destroy_dependents_before_their_dependencies() {
+            contextConfiguration.bind(Component.class, DestroyedComponent.class, singleton());
+            contextConfiguration.bind(Dependency.class, DestroyedDependency.class, singleton());
+            contextConfiguration.bind(Object.class, DestroyedDependent.class, singleton());
+            Context context = contextConfiguration.toContext();
+            context.getInstance(Object.class);
+
+            context.close();
+            List<String> destroyed = List.copyOf(events);
+            assertEquals("dependent", destroyed.get(0));
+            assertEquals(Set.of("component", "dependency"), Set.copyOf(destroyed.subList(1, destroyed.size())));
+        }
+
+        @Test
+        void should_not_share_singletons_between_contexts_of_one_configuration() {
+            contextConfiguration.bind(Component.class, DestroyedComponent.class, singleton());
+            Context first = contextConfiguration.toContext();
+            Context second = contextConfiguration.toContext();
+            Component component = second.getInstance(Component.class).get();
+
+            assertNotSame(first.getInstance(Component.class).get(), component);
+            first.close();
+            assertEquals(List.of("component"), List.copyOf(events));
+            assertSame(component, second.getInstance(Component.class).get());
+        }
+
+        @Test
+        void should_destroy_singletons_retired_by_rebind_on_close() {
+            contextConfiguration.bind(Component.class, DestroyedComponent.class, singleton());
+            contextConfiguration.bind(Dependency.class, DestroyedDependency.class, singleton());
+            contextConfiguration.bind(Object.class, DestroyedDependent.class, singleton());
+            Context context = contextConfiguration.toContext();
+            context.getInstance(Object.class);
+
+            ContextConfiguration changes = new ContextConfiguration();
+            changes.bind(Component.class, DestroyedComponent.class, singleton());
+            context.rebind(changes);
+            context.getInstance(Object.class);
+            assertEquals(List.of(), List.copyOf(events));
+
+            context.close();
+            List<String> destroyed = List.copyOf(events);
+            assertEquals(5, destroyed.size());
+            assertEquals("dependent", destroyed.get(0));
+            assertEquals(Set.of("component", "dependency"), Set.copyOf(destroyed.subList(1, 3)));
+            assertEquals(List.of("dependent", "component"), destroyed.subList(3, 5));
+        }
+
+        @Test
+        void should_not_resolve_from_closed_context() {
+            contextConfiguration.bind(Component.class, DestroyedComponent.class, singleton());
+            Context context = contextConfiguration.toContext();
+            context.rebind(new ContextConfiguration());
+            context.close();
+
+            assertThrows(IllegalStateException.class, () -> context.getInstance(Component.class));
+            assertThrows(IllegalStateException.class, () -> context.getInstanceAsync(Component.class, Runnable::run));
+            assertEquals(List.of(), List.copyOf(events));
+        }
+
+        @Test
+        void should_destroy_singletons_retired_two_rebinds_ago() {
+            contextConfiguration.bind(Component.class, DestroyedComponent.class, singleton());
+            Context context = contextConfiguration.toContext();
+            context.getInstance(Component.class);
+
+            for (int i = 1; i <= 10; i++) {
+                ContextConfiguration changes = new ContextConfiguration();
+                changes.bind(Component.class, DestroyedComponent.class, singleton());
+                context.rebind(changes);
+                context.getInstance(Component.class);
+                assertEquals(i - 1, events.size());
+            }
+
+            context.close();
+            assertEquals(11, events.size());
+        }
+
+        @Test
+        void should_destroy_independent_components_in_parallel() {
+            ParallelDestroyedComponent.latch = new CountDownLatch(2);
+            contextConfiguration.bind(Component.class, ParallelDestroyedComponent.class, AnnotationContainer.named("first"));
+            contextConfiguration.bind(Component.class, ParallelDestroyedComponent.class, AnnotationContainer.named("second"));
+            Context context = contextConfiguration.toContext();
+            context.getInstance(Component.class, AnnotationContainer.named("first"));
+            context.getInstance(Component.class, AnnotationContainer.named("second"));
+
+            ForkJoinPool pool = new ForkJoinPool(2);
+            try {
+                context.close(pool);
+            } finally {
+                pool.shutdown();
+            }
+            assertEquals(0, ParallelDestroyedComponent.latch.getCount());
+        }
+
+        @Test
+        void should_destroy_remaining_components_if_one_failed() {
+            contextConfiguration.bind(Component.class, FailingDestroyComponent.class);
+            contextConfiguration.bind(Dependency.class, DestroyedDependency.class, singleton());
+            Context context = contextConfiguration.toContext();
+            context.getInstance(Component.class);
+            context.getInstance(Dependency.class);
+
+            assertThrows(IllegalStateException.class, context::close);
+            assertEquals(List.of("dependency"), List.copyOf(events));
+        }
+
+        @Test
+        void should_destroy_pooled_instance_returned_after_close() {
+            contextConfiguration.bind(Component.class, DestroyedComponent.class, PooledComponent.class.getAnnotation(Pooled.class));
+            Context context = contextConfiguration.toContext();
+            Lease<Component> lease = context.lease(Component.class).get();
+
+            context.close();
+            assertEquals(List.of(), List.copyOf(events));
+            lease.close();
+            assertEquals(List.of("component"), List.copyOf(events));
+        }
+
+        @Test
+        void should_destroy_idle_pooled_instances_on_close() {
+            contextConfiguration.bind(Component.class, DestroyedComponent.class, PooledComponent.class.getAnnotation(Pooled.class));
+            Context context = contextConfiguration.toContext();
+            context.lease(Component.class).get().close();
+
+            context.close();
+            assertEquals(List.of("component"), List.copyOf(events));
+        }
+    }
+
+    @Nested
+    class CustomScope {
+        @Test
+        void should_recreate_custom_scope_for_child_overriding_dependency() {
+            contextConfiguration.scope(Recycled.class, provider -> new ScopedProvider<>((Provider<Object>) provider) {
+                private Object instance;
+
+                @Override
+                public synchronized Object get(Context context) {
+                    return instance != null ? instance : (instance = this.provider.get(context));
+                }
+            });
+            contextConfiguration.bind(Component.class, SingletonComponentWithDependency.class, recycled());
+            contextConfiguration.bind(Dependency.class, PrototypeDependency.class);
+            Context parent = contextConfiguration.toContext();
+            ContextConfiguration child = parent.child();
+            Dependency override = new Dependency() {
+            };
+            child.component(Dependency.class, override);
+
+            assertSame(override, ((SingletonComponentWithDependency) child.toContext().getInstance(Component.class).get()).dependency);
+            assertInstanceOf(PrototypeDependency.class, ((SingletonComponentWithDependency) parent.getInstance(Component.class).get()).dependency);
+        }
+
+        @Test
+        void should_wrap_provider_with_registered_scope() {
+            contextConfiguration.scope(Recycled.class, provider -> new ScopedProvider<>((Provider<Object>) provider) {
+                private final List<Object> pool = IntStream.range(0, 2).mapToObj(i -> new Object()).toList();
+                private int index;
+
+                @Override
+                public Object get(Context context) {
+                    return pool.get(index++ % pool.size());
+                }
+            });
+            contextConfiguration.bind(Object.class, Object.class, recycled());
+            Context context = contextConfiguration.toContext();
+
+            Object first = context.getInstance(Object.class).get();
+            Object second = context.getInstance(Object.class).get();
+            assertNotSame(first, second);
+            assertSame(first, context.getInstance(Object.class).get());
+        }
+
+        @Test
+        void should_throw_exception_if_scope_not_registered() {
+            UnsupportedBindException exception = assertThrows(UnsupportedBindException.class,
+                () -> contextConfiguration.bind(Component.class, RecycledComponent.class));
+            assertEquals(RecycledComponent.class, exception.getInstanceType());
+        }
+    }
+
+    private static Annotation singleton() {
+        return SingletonComponent.class.getAnnotation(Singleton.class);
+    }
+
+    private static Annotation recycled() {
+        return RecycledComponent.class.getAnnotation(Recycled.class);
+    }
+
+    @Scope
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Recycled {
+    }
+
+    static class PrototypeComponent implements Component {
+    }
+
+    static class PrototypeDependency implements Dependency {
+    }
+
+    static class ParallelComponent implements Component {
+        static CountDownLatch latch;
+
+        public ParallelComponent() throws InterruptedException {
+            latch.countDown();
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("not constructed in parallel");
+            }
+        }
+    }
+
+    @Singleton
+    static class DependencyOnParallelComponents implements Dependency {
+        Component first;
+        Component second;
+
+        @Inject
+        public DependencyOnParallelComponents(@Named("first") Component first, @Named("second") Component second) {
+            this.first = first;
+            this.second = second;
+        }
+    }
+
+    static class DependencyOnFailingComponent implements Dependency {
+        @Inject
+        Component component;
+    }
+
+    @Singleton
+    static class FailingComponent implements Component {
+        public FailingComponent() {
+            throw new IllegalStateException();
+        }
+    }
+
+    @Singleton
+    static class SingletonComponent implements Component {
+    }
+
+    @Recycled
+    static class RecycledComponent implements Component {
+    }
+
+    static final Queue<String> events = new ConcurrentLinkedQueue<>();
+
+    static class PostConstructComponent implements Component {
+        @Inject
+        Dependency dependency;
+        boolean injectedBeforePostConstruct;
+
+        @PostConstruct
+        void init() {
+            injectedBeforePostConstruct = dependency != null;
+        }
+    }
+
+    static class SuperclassCallbackComponent implements Component {
+        @PostConstruct
+        private void init() {
+            events.add("super.init");
+        }
+
+        @PostConstruct
+        void start() {
+            events.add("super.start");
+        }
+    }
+
+    static class SubclassCallbackComponent extends SuperclassCallbackComponent {
+        @Override
+        @PostConstruct
+        void start() {
+            events.add("sub.start");
+        }
+    }
+
+    static class IllegalCallbackComponent implements Component {
+        @PostConstruct
+        void init(Dependency dependency) {
+        }
+    }
+
+    static class DestroyedComponent implements Component {
+        @PreDestroy
+        void destroy() {
+            events.add("component");
+        }
+    }
+
+    static class DestroyedDependency implements Dependency {
+        @PreDestroy
+        void destroy() {
+            events.add("dependency");
+        }
+    }
+
+    static class DestroyedDependent {
+        @Inject
+        public DestroyedDependent(Component component, Dependency dependency) {
+        }
+
+        @PreDestroy
+        void destroy() {
+            events.add("dependent");
+        }
+    }
+
+    @Singleton
+    static class ParallelDestroyedComponent implements Component {
+        static CountDownLatch latch;
+
+        @PreDestroy
+        void destroy() throws InterruptedException {
+            latch.countDown();
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("not destroyed in parallel");
+            }
+        }
+    }
+
+    @Singleton
+    static class FailingDestroyComponent implements Component {
+        @PreDestroy
+        void destroy() {
+            throw new IllegalStateException();
+        }
+    }
+
+    @Pooled(capacity = 2)
+    static class PooledComponent implements Component {
+        final AtomicBoolean inUse = new AtomicBoolean();
+    }
+
+    @Pooled
+    static class PooledComponentWithDependency implements Component {
+        @Inject
+        Dependency dependency;
+    }
+
+    @Singleton
+    static class SingletonDependency implements Dependency {
+    }
+
+    @Singleton
+    static class SingletonComponentWithDependency implements Component {
+        @Inject
+        Dependency dependency;
+    }
+
+    @Singleton
+    static class CountingComponent implements Component {
+        static final AtomicInteger count = new AtomicInteger();
+
+        public CountingComponent() throws InterruptedException {
+            count.incrementAndGet();
+            Thread.sleep(50);
+        }
+    }
 }
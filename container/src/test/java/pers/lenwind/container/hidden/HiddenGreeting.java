@@ -0,0 +1,36 @@
+package pers.lenwind.container.hidden;
+
+import jakarta.inject.Inject;
+import pers.lenwind.container.ContextConfiguration;
+import pers.lenwind.container.Lazy;
+
+public final class HiddenGreeting {
+    private HiddenGreeting() {
+    }
+
+    public static void bind(ContextConfiguration configuration) {
+        configuration.bind(Greeter.class, DefaultGreeter.class);
+        configuration.bind(LazyGreeting.class, LazyGreeting.class);
+    }
+
+    interface Greeter {
+        String greet();
+    }
+
+    static class DefaultGreeter implements Greeter {
+        @Override
+        public String greet() {
+            return "hidden";
+        }
+    }
+
+    public static class LazyGreeting {
+        @Inject
+        @Lazy
+        Greeter greeter;
+
+        public String greet() {
+            return greeter.greet();
+        }
+    }
+}